@@ -0,0 +1,86 @@
+package org.xgbi.assertj.vaadin.benchmark;
+
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xgbi.assertj.vaadin.api.component.ComponentAssert;
+import org.xgbi.assertj.vaadin.api.component.ComponentContainerAssert;
+
+import com.vaadin.ui.Button;
+import com.vaadin.ui.ComponentContainer;
+import com.vaadin.ui.HorizontalLayout;
+import com.vaadin.ui.TextField;
+import com.vaadin.ui.VerticalLayout;
+
+/**
+ * Component checks over deep layout trees: each level is a
+ * {@link VerticalLayout} holding a {@link TextField}, a {@link Button} and the
+ * next level, the deepest one holds the only {@link HorizontalLayout}.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentAssertBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int depth;
+
+	private ComponentContainer root;
+	private String deepestCaption;
+
+	@Setup(Level.Trial)
+	public void createTree() {
+		VerticalLayout level = new VerticalLayout();
+		root = level;
+		for (int i = 0; i < depth; i++) {
+			level.addComponent(new TextField("field-" + i));
+			level.addComponent(new Button("button-" + i));
+			VerticalLayout next = new VerticalLayout();
+			level.addComponent(next);
+			level = next;
+		}
+		level.addComponent(new HorizontalLayout());
+		deepestCaption = "button-" + (depth - 1);
+	}
+
+	@Benchmark
+	public ComponentAssert findByCaption() {
+		return assertThat(root).findByCaption(deepestCaption);
+	}
+
+	@Benchmark
+	public ComponentAssert select() {
+		return assertThat(root).select("VerticalLayout HorizontalLayout");
+	}
+
+	@Benchmark
+	public ComponentContainerAssert allDescendantsStates() {
+		return assertThat(root).allDescendantsAreEnabled()
+				.noDescendantIsReadOnly().allDescendantsVisible();
+	}
+
+	@Benchmark
+	public ComponentAssert componentChecks() {
+		return assertThat(root).isEnabled().isVisible().isNotReadOnly()
+				.hasNoParent();
+	}
+}
@@ -0,0 +1,77 @@
+package org.xgbi.assertj.vaadin.benchmark;
+
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xgbi.assertj.vaadin.api.container.ContainerAssert;
+
+import com.vaadin.data.Container;
+
+/**
+ * Scaling of the {@link ContainerAssert} hot paths with the number of rows
+ * and the kind of {@link Container}.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ContainerAssertBenchmark {
+
+	private static final Object[] PROPERTY_IDS = { Containers.ID,
+			Containers.NAME, Containers.AMOUNT };
+
+	@Param({ "indexed", "bean", "hierarchical" })
+	public String type;
+
+	@Param({ "1000", "10000", "100000", "1000000" })
+	public int rows;
+
+	private Container actual;
+	private Container expected;
+	private Object lastItemId;
+
+	@Setup(Level.Trial)
+	public void createContainers() {
+		actual = Containers.create(type, rows);
+		expected = Containers.create(type, rows);
+		lastItemId = Containers.itemId(type, rows - 1);
+	}
+
+	@Benchmark
+	public ContainerAssert equalsContainer() {
+		return assertThat(actual).equals(expected);
+	}
+
+	@Benchmark
+	public ContainerAssert hasPropertyIds() {
+		return assertThat(actual).hasPropertyIds(PROPERTY_IDS);
+	}
+
+	@Benchmark
+	public ContainerAssert hasItemId() {
+		return assertThat(actual).hasItemId(lastItemId);
+	}
+
+	@Benchmark
+	public ContainerAssert hasSize() {
+		return assertThat(actual).hasSize(rows);
+	}
+}
@@ -0,0 +1,108 @@
+package org.xgbi.assertj.vaadin.benchmark;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+import com.vaadin.data.util.BeanItemContainer;
+import com.vaadin.data.util.HierarchicalContainer;
+import com.vaadin.data.util.IndexedContainer;
+
+/**
+ * The containers measured by the benchmarks: the same rows in an
+ * {@link IndexedContainer}, a {@link BeanItemContainer} or a
+ * {@link HierarchicalContainer} (every row under one of the roots, by pages of
+ * 1000 rows).
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+final class Containers {
+
+	static final String ID = "id";
+	static final String NAME = "name";
+	static final String AMOUNT = "amount";
+
+	private Containers() {
+	}
+
+	static Container create(String type, int rows) {
+		if ("indexed".equals(type)) {
+			return fill(new IndexedContainer(), rows);
+		}
+		if ("bean".equals(type)) {
+			BeanItemContainer<Row> container = new BeanItemContainer<Row>(
+					Row.class);
+			for (int i = 0; i < rows; i++) {
+				container.addBean(new Row(i, "name-" + (i % 1000), i * 0.5));
+			}
+			return container;
+		}
+		if ("hierarchical".equals(type)) {
+			HierarchicalContainer container = new HierarchicalContainer();
+			fill(container, rows);
+			for (int i = 0; i < rows; i++) {
+				if (i % 1000 != 0) {
+					container.setParent(itemId(type, i), itemId(type, i - i % 1000));
+				}
+			}
+			return container;
+		}
+		throw new IllegalArgumentException("Unknown container type " + type);
+	}
+
+	/**
+	 * @return the itemId of the given row in a container created by
+	 *         {@link #create(String, int)}.
+	 */
+	static Object itemId(String type, int row) {
+		return "bean".equals(type) ? new Row(row, null, 0) : Integer
+				.valueOf(row);
+	}
+
+	private static <C extends Container> C fill(C container, int rows) {
+		container.addContainerProperty(ID, Integer.class, null);
+		container.addContainerProperty(NAME, String.class, null);
+		container.addContainerProperty(AMOUNT, Double.class, null);
+		for (int i = 0; i < rows; i++) {
+			Item item = container.addItem(Integer.valueOf(i));
+			item.getItemProperty(ID).setValue(i);
+			item.getItemProperty(NAME).setValue("name-" + (i % 1000));
+			item.getItemProperty(AMOUNT).setValue(i * 0.5);
+		}
+		return container;
+	}
+
+	public static class Row {
+
+		private final int id;
+		private final String name;
+		private final double amount;
+
+		Row(int id, String name, double amount) {
+			this.id = id;
+			this.name = name;
+			this.amount = amount;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getAmount() {
+			return amount;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Row && ((Row) other).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+	}
+}
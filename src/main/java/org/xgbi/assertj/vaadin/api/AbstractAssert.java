@@ -1,5 +1,9 @@
 package org.xgbi.assertj.vaadin.api;
 
+import java.util.Collections;
+
+import org.assertj.core.api.Condition;
+import org.assertj.core.error.BasicErrorMessageFactory;
 import org.assertj.core.internal.Objects;
 import org.assertj.core.util.VisibleForTesting;
 
@@ -23,10 +27,370 @@ public abstract class AbstractAssert<S extends AbstractAssert<S, A>, A> extends
 	
 	  protected final S myself;
 
+	/** Records the failures instead of throwing them, see {@link SoftVaadinAssertions}. */
+	FailureCollector collector;
+
+	/** The actual value, or its counting proxy, see {@link #counted()}. */
+	private final A counted;
+	/** Counts the calls to the actual value, see {@link AssertionListener}. */
+	private final CallCounter calls;
+	private int depth;
+	private String assertion;
+	private boolean failed;
+	private boolean returned;
+	private long startNanos;
+
 	@SuppressWarnings("unchecked")
 	protected AbstractAssert(A actual, Class<?> selfType) {
 		super(actual, selfType);
 		myself = (S) selfType.cast(this);
+		counted = AssertionListeners.isActive() ? CallCounter.wrap(actual)
+				: actual;
+		calls = CallCounter.of(counted);
+	}
+
+	/**
+	 * The actual value to read in the assertions: while
+	 * {@link AssertionListener}s are registered, it may be a proxy counting
+	 * the calls made to the actual value. Checks on the identity or the class
+	 * of the actual value should use {@link #actual} itself.
+	 * 
+	 * @return the actual value, or its counting proxy.
+	 */
+	protected A counted() {
+		return counted;
+	}
+
+	/**
+	 * Mark the beginning of an assertion method, for the registered
+	 * {@link AssertionListener}s. Every assertion method has the same shape:
+	 * 
+	 * <pre>
+	 * started(&quot;hasSize&quot;);
+	 * try {
+	 * 	...
+	 * 	return finished(this);
+	 * } finally {
+	 * 	ended();
+	 * }
+	 * </pre>
+	 * 
+	 * Assertions called by another assertion of the same object are part of
+	 * the calling one. An assertion that does not reach
+	 * {@link #finished(Object)} (because it threw an exception) or that
+	 * recorded a failure is reported as failed.
+	 * 
+	 * @param name
+	 *            the name of the assertion method.
+	 */
+	protected final void started(String name) {
+		if (depth++ > 0 || !AssertionListeners.isActive()) {
+			return;
+		}
+		assertion = getClass().getSimpleName() + "." + name;
+		failed = false;
+		if (calls != null) {
+			calls.reset();
+		}
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Mark the normal end of the assertion method started by
+	 * {@link #started(String)}.
+	 * 
+	 * @param result
+	 *            the value returned by the assertion method.
+	 * @return the given value.
+	 */
+	protected final <T> T finished(T result) {
+		returned = true;
+		return result;
+	}
+
+	/**
+	 * Mark the end of the assertion method started by
+	 * {@link #started(String)}, in its {@code finally} block, and report it to
+	 * the registered {@link AssertionListener}s if it is not nested in
+	 * another one.
+	 */
+	protected final void ended() {
+		if (!returned) {
+			failed = true;
+		}
+		returned = false;
+		if (--depth > 0 || assertion == null) {
+			return;
+		}
+		long durationNanos = System.nanoTime() - startNanos;
+		String ended = assertion;
+		assertion = null;
+		AssertionListeners.fire(new AssertionEvent(ended, durationNanos,
+				failed, calls == null ? Collections.<String, Integer> emptyMap()
+						: calls.counts()));
+	}
+
+	/*
+	 * The checks inherited from assertj fail like failWithMessage: at once, or
+	 * softly for SoftVaadinAssertions.
+	 */
+
+	@Override
+	public void isNull() {
+		check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNull();
+			}
+		});
+	}
+
+	@Override
+	public S isEqualTo(final Object expected) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isEqualTo(expected);
+			}
+		});
+	}
+
+	@Override
+	public S isNotEqualTo(final Object other) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotEqualTo(other);
+			}
+		});
+	}
+
+	@Override
+	public S isSameAs(final Object expected) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isSameAs(expected);
+			}
+		});
+	}
+
+	@Override
+	public S isNotSameAs(final Object other) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotSameAs(other);
+			}
+		});
+	}
+
+	@Override
+	public S isIn(final Object... values) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isIn(values);
+			}
+		});
+	}
+
+	@Override
+	public S isNotIn(final Object... values) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotIn(values);
+			}
+		});
+	}
+
+	@Override
+	public S isIn(final Iterable<?> values) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isIn(values);
+			}
+		});
+	}
+
+	@Override
+	public S isNotIn(final Iterable<?> values) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotIn(values);
+			}
+		});
+	}
+
+	@Override
+	public S is(final Condition<? super A> condition) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.is(condition);
+			}
+		});
+	}
+
+	@Override
+	public S isNot(final Condition<? super A> condition) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNot(condition);
+			}
+		});
+	}
+
+	@Override
+	public S has(final Condition<? super A> condition) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.has(condition);
+			}
+		});
+	}
+
+	@Override
+	public S doesNotHave(final Condition<? super A> condition) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.doesNotHave(condition);
+			}
+		});
+	}
+
+	@Override
+	public S isInstanceOf(final Class<?> type) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isInstanceOf(type);
+			}
+		});
+	}
+
+	@Override
+	public S isInstanceOfAny(final Class<?>... types) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isInstanceOfAny(types);
+			}
+		});
+	}
+
+	@Override
+	public S isNotInstanceOf(final Class<?> type) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotInstanceOf(type);
+			}
+		});
+	}
+
+	@Override
+	public S isNotInstanceOfAny(final Class<?>... types) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotInstanceOfAny(types);
+			}
+		});
+	}
+
+	@Override
+	public S hasSameClassAs(final Object other) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.hasSameClassAs(other);
+			}
+		});
+	}
+
+	@Override
+	public S doesNotHaveSameClassAs(final Object other) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.doesNotHaveSameClassAs(other);
+			}
+		});
+	}
+
+	@Override
+	public S isExactlyInstanceOf(final Class<?> type) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isExactlyInstanceOf(type);
+			}
+		});
+	}
+
+	@Override
+	public S isNotExactlyInstanceOf(final Class<?> type) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotExactlyInstanceOf(type);
+			}
+		});
+	}
+
+	@Override
+	public S isOfAnyClassIn(final Class<?>... types) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isOfAnyClassIn(types);
+			}
+		});
+	}
+
+	@Override
+	public S isNotOfAnyClassIn(final Class<?>... types) {
+		return check(new Check() {
+			@Override
+			void run() {
+				AbstractAssert.super.isNotOfAnyClassIn(types);
+			}
+		});
+	}
+
+	/**
+	 * An inherited check, see {@link AbstractAssert#check(Check)}.
+	 */
+	private abstract class Check {
+
+		abstract void run();
+	}
+
+	/**
+	 * Run the given inherited check: rethrow its failure, or only record its
+	 * message if this assertion has been created by
+	 * {@link SoftVaadinAssertions}.
+	 * 
+	 * @return this assertion.
+	 */
+	private S check(Check check) {
+		try {
+			check.run();
+		} catch (AssertionError e) {
+			failed = true;
+			if (collector == null) {
+				throw e;
+			}
+			collector.record(e.getMessage());
+		}
+		return myself;
 	}
 
 	public S isNotNull(Object object) {
@@ -34,6 +398,36 @@ public abstract class AbstractAssert<S extends AbstractAssert<S, A>, A> extends
 		return myself;
 	}
 	
+	/**
+	 * Fail with the given message, or only record it if this assertion has
+	 * been created by {@link SoftVaadinAssertions}. In the latter case the
+	 * check goes on after this call.
+	 */
+	@Override
+	protected void failWithMessage(String errorMessage, Object... arguments) {
+		failed = true;
+		if (collector == null) {
+			super.failWithMessage(errorMessage, arguments);
+			return;
+		}
+		String overridingErrorMessage = info.overridingErrorMessage();
+		collector.record(overridingErrorMessage != null ? overridingErrorMessage
+				: new BasicErrorMessageFactory(errorMessage, arguments)
+						.create(info.description()));
+	}
+
+	/**
+	 * @param assertion
+	 *            an assertion created by this one, for example on a part of
+	 *            the actual value.
+	 * @return the given assertion, that fails like this one (immediately or
+	 *         softly).
+	 */
+	protected <T extends AbstractAssert<?, ?>> T sharingFailures(T assertion) {
+		assertion.collector = collector;
+		return assertion;
+	}
+
 	public void throwIllegalArgumentExceptionIfTrue(boolean condition, String errorMessage) {
 		if (condition) {
 			throw new IllegalArgumentException(errorMessage);
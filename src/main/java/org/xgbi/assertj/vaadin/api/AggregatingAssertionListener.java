@@ -0,0 +1,212 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * {@link AssertionListener} aggregating the executions of each assertion
+ * method: number of executions and failures, total and maximum wall time and
+ * total number of calls of each method of the actual
+ * {@link com.vaadin.data.Container}.
+ * 
+ * <pre>
+ * AggregatingAssertionListener listener = new AggregatingAssertionListener();
+ * AssertionListeners.register(listener);
+ * // run the tests
+ * listener.writeCsv(new File(&quot;target/slowest-assertions.csv&quot;), 50);
+ * </pre>
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public class AggregatingAssertionListener implements AssertionListener {
+
+	private final Map<String, Statistics> statistics = new HashMap<String, Statistics>();
+
+	public synchronized void assertionExecuted(AssertionEvent event) {
+		Statistics current = statistics.get(event.getAssertion());
+		if (current == null) {
+			current = new Statistics(event.getAssertion());
+			statistics.put(event.getAssertion(), current);
+		}
+		current.add(event);
+	}
+
+	/**
+	 * @param limit
+	 *            the maximum number of assertions to return.
+	 * @return the statistics of the assertions with the largest total wall
+	 *         time, slowest first.
+	 */
+	public synchronized List<Statistics> slowest(int limit) {
+		List<Statistics> slowest = new ArrayList<Statistics>();
+		for (Statistics current : statistics.values()) {
+			slowest.add(current.copy());
+		}
+		Collections.sort(slowest, new Comparator<Statistics>() {
+			public int compare(Statistics first, Statistics second) {
+				return first.totalNanos > second.totalNanos ? -1
+						: first.totalNanos < second.totalNanos ? 1 : first
+								.getAssertion().compareTo(second.getAssertion());
+			}
+		});
+		return slowest.size() > limit ? slowest.subList(0, limit) : slowest;
+	}
+
+	/**
+	 * Forget every execution aggregated so far.
+	 */
+	public synchronized void clear() {
+		statistics.clear();
+	}
+
+	/**
+	 * Write the {@link #slowest(int)} assertions as CSV: one line per
+	 * assertion with its count, failures, total and maximum time (in
+	 * milliseconds), mean time (in microseconds) and a column per
+	 * {@link com.vaadin.data.Container} method called.
+	 * 
+	 * @param writer
+	 *            the writer to write to (it is not closed).
+	 * @param limit
+	 *            the maximum number of assertions to write.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	public void writeCsv(Writer writer, int limit) throws IOException {
+		List<Statistics> slowest = slowest(limit);
+		Set<String> methods = new TreeSet<String>();
+		for (Statistics current : slowest) {
+			methods.addAll(current.calls.keySet());
+		}
+		writer.write("assertion,count,failures,total_ms,max_ms,mean_us");
+		for (String method : methods) {
+			writer.write(',');
+			writer.write(method);
+		}
+		writer.write('\n');
+		for (Statistics current : slowest) {
+			writer.write(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f",
+					current.assertion, current.count, current.failures,
+					current.totalNanos / 1e6, current.maxNanos / 1e6,
+					current.totalNanos / 1e3 / current.count));
+			for (String method : methods) {
+				writer.write(',');
+				writer.write(String.valueOf(current.getCallCount(method)));
+			}
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Write the {@link #slowest(int)} assertions as CSV to the given file,
+	 * see {@link #writeCsv(Writer, int)}.
+	 * 
+	 * @param file
+	 *            the file to (over)write.
+	 * @param limit
+	 *            the maximum number of assertions to write.
+	 * @throws IOException
+	 *             if the file can not be written.
+	 */
+	public void writeCsv(File file, int limit) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+				"UTF-8");
+		try {
+			writeCsv(writer, limit);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * The aggregated executions of an assertion method.
+	 */
+	public static final class Statistics {
+
+		private final String assertion;
+		private int count;
+		private int failures;
+		private long totalNanos;
+		private long maxNanos;
+		private final Map<String, Long> calls = new TreeMap<String, Long>();
+
+		Statistics(String assertion) {
+			this.assertion = assertion;
+		}
+
+		void add(AssertionEvent event) {
+			count++;
+			if (event.isFailed()) {
+				failures++;
+			}
+			totalNanos += event.getDurationNanos();
+			maxNanos = Math.max(maxNanos, event.getDurationNanos());
+			for (Map.Entry<String, Integer> call : event.getCalls().entrySet()) {
+				Long total = calls.get(call.getKey());
+				calls.put(call.getKey(), (total == null ? 0L : total)
+						+ call.getValue());
+			}
+		}
+
+		Statistics copy() {
+			Statistics copy = new Statistics(assertion);
+			copy.count = count;
+			copy.failures = failures;
+			copy.totalNanos = totalNanos;
+			copy.maxNanos = maxNanos;
+			copy.calls.putAll(calls);
+			return copy;
+		}
+
+		public String getAssertion() {
+			return assertion;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public int getFailures() {
+			return failures;
+		}
+
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * @param method
+		 *            the name of a {@link com.vaadin.data.Container} method.
+		 * @return the total number of calls of the given method.
+		 */
+		public long getCallCount(String method) {
+			Long total = calls.get(method);
+			return total == null ? 0L : total;
+		}
+
+		@Override
+		public String toString() {
+			return assertion + ": " + count + " executions, " + failures
+					+ " failures, " + totalNanos + "ns, calls " + calls;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.util.Map;
+
+/**
+ * An assertion method that has been executed: its name, how long it took and
+ * how many times it called each method of the actual
+ * {@link com.vaadin.data.Container}.
+ * 
+ * <p>
+ * Only the calls to {@link com.vaadin.data.Container}s are counted, they are
+ * the ones that may hit a database. The calls to
+ * {@link com.vaadin.ui.Component}s (and to the containers that are also
+ * components, like a {@code Table}) are in-memory reads and are not counted:
+ * the assertions on components only report their name, duration and
+ * outcome.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public final class AssertionEvent {
+
+	private final String assertion;
+	private final long durationNanos;
+	private final boolean failed;
+	private final Map<String, Integer> calls;
+
+	AssertionEvent(String assertion, long durationNanos, boolean failed,
+			Map<String, Integer> calls) {
+		this.assertion = assertion;
+		this.durationNanos = durationNanos;
+		this.failed = failed;
+		this.calls = calls;
+	}
+
+	/**
+	 * @return the simple name of the assertion class and the name of the
+	 *         method, for example {@code ContainerAssert.hasSize}.
+	 */
+	public String getAssertion() {
+		return assertion;
+	}
+
+	/**
+	 * @return the wall time of the assertion, in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return {@code true} if the assertion failed.
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * @return the number of calls of each method of the actual
+	 *         {@link com.vaadin.data.Container} (for example {@code size} or
+	 *         {@code getContainerProperty}) made by the assertion. Empty if the
+	 *         actual value is not a {@link com.vaadin.data.Container}, or is
+	 *         also a {@link com.vaadin.ui.Component}.
+	 */
+	public Map<String, Integer> getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @param method
+	 *            the name of a method of the actual
+	 *            {@link com.vaadin.data.Container}.
+	 * @return the number of calls of the given method made by the assertion.
+	 */
+	public int getCallCount(String method) {
+		Integer count = calls.get(method);
+		return count == null ? 0 : count;
+	}
+
+	@Override
+	public String toString() {
+		return assertion + (failed ? " failed in " : " passed in ")
+				+ durationNanos + "ns, calls " + calls;
+	}
+}
@@ -0,0 +1,26 @@
+package org.xgbi.assertj.vaadin.api;
+
+/**
+ * Listener notified after each assertion method of the Vaadin assertions,
+ * with the calls it made to the actual {@link com.vaadin.data.Container} (see
+ * {@link AssertionEvent} for the scope of the counts).
+ * 
+ * <p>
+ * Listeners are registered with {@link AssertionListeners#register}, or
+ * declared in a {@code META-INF/services/org.xgbi.assertj.vaadin.api.AssertionListener}
+ * file to be loaded with {@link java.util.ServiceLoader}. While no listener is
+ * registered, the assertions only count their nesting: they are neither
+ * timed nor proxied.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public interface AssertionListener {
+
+	/**
+	 * @param event
+	 *            the assertion that has just been executed, successfully or
+	 *            not.
+	 */
+	void assertionExecuted(AssertionEvent event);
+}
@@ -0,0 +1,101 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The registered {@link AssertionListener}s, starting with the ones declared
+ * as {@link ServiceLoader} services. A listener may also be registered for the
+ * current thread only, to observe its assertions while other threads run
+ * theirs (for example test classes run in parallel).
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public final class AssertionListeners {
+
+	private static final List<AssertionListener> LISTENERS = new CopyOnWriteArrayList<AssertionListener>();
+	private static final ThreadLocal<List<AssertionListener>> THREAD_LISTENERS = new ThreadLocal<List<AssertionListener>>() {
+		@Override
+		protected List<AssertionListener> initialValue() {
+			return new ArrayList<AssertionListener>();
+		}
+	};
+
+	static {
+		for (AssertionListener listener : ServiceLoader
+				.load(AssertionListener.class)) {
+			LISTENERS.add(listener);
+		}
+	}
+
+	private AssertionListeners() {
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to notify after each assertion.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given listener is {@code null}.
+	 */
+	public static void register(AssertionListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException(
+					"The listener to register should not be null");
+		}
+		LISTENERS.add(listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener not to notify anymore.
+	 */
+	public static void unregister(AssertionListener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to notify after each assertion of the current
+	 *            thread.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given listener is {@code null}.
+	 */
+	public static void registerForCurrentThread(AssertionListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException(
+					"The listener to register should not be null");
+		}
+		THREAD_LISTENERS.get().add(listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener not to notify anymore of the assertions of the
+	 *            current thread.
+	 */
+	public static void unregisterForCurrentThread(AssertionListener listener) {
+		List<AssertionListener> listeners = THREAD_LISTENERS.get();
+		listeners.remove(listener);
+		if (listeners.isEmpty()) {
+			THREAD_LISTENERS.remove();
+		}
+	}
+
+	static boolean isActive() {
+		return !LISTENERS.isEmpty() || !THREAD_LISTENERS.get().isEmpty();
+	}
+
+	static void fire(AssertionEvent event) {
+		for (AssertionListener listener : LISTENERS) {
+			listener.assertionExecuted(event);
+		}
+		for (AssertionListener listener : THREAD_LISTENERS.get()) {
+			listener.assertionExecuted(event);
+		}
+	}
+}
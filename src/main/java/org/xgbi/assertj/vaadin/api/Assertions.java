@@ -4,6 +4,7 @@ import org.xgbi.assertj.vaadin.api.component.ComponentAssert;
 import org.xgbi.assertj.vaadin.api.component.ComponentContainerAssert;
 import org.xgbi.assertj.vaadin.api.component.TabSheetAssert;
 import org.xgbi.assertj.vaadin.api.container.ContainerAssert;
+import org.xgbi.assertj.vaadin.api.container.HierarchicalContainerAssert;
 
 import com.vaadin.data.Container;
 import com.vaadin.ui.Component;
@@ -22,6 +23,11 @@ public class Assertions {
 		return new ContainerAssert(actual);
 	}
 	
+	public static HierarchicalContainerAssert assertThat(
+			Container.Hierarchical actual) {
+		return new HierarchicalContainerAssert(actual);
+	}
+
 	public static ComponentAssert assertThat(Component actual) {
 		return new ComponentAssert(actual);
 	}
@@ -0,0 +1,122 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.xgbi.assertj.vaadin.api.container.ContainerSnapshot;
+
+import com.vaadin.data.Container;
+import com.vaadin.ui.Component;
+
+/**
+ * Counts the calls made to a {@link Container}, through a dynamic proxy
+ * implementing every public interface of the {@link Container}.
+ * 
+ * <p>
+ * {@link ContainerSnapshot}s are not counted: some assertions read them
+ * directly, which a proxy would prevent. Neither are the containers that are
+ * also {@link Component}s (such as a {@code Table}), whose assertions need
+ * the component itself.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+class CallCounter implements InvocationHandler {
+
+	private final Object target;
+	private final ConcurrentMap<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+
+	private CallCounter(Object target) {
+		this.target = target;
+	}
+
+	/**
+	 * @return a counting proxy of the given value if it is a
+	 *         {@link Container}, the given value otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	static <A> A wrap(A actual) {
+		if (!(actual instanceof Container) || actual instanceof Component
+				|| actual instanceof ContainerSnapshot
+				|| Proxy.isProxyClass(actual.getClass())) {
+			return actual;
+		}
+		Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+		for (Class<?> type = actual.getClass(); type != null; type = type
+				.getSuperclass()) {
+			for (Class<?> implemented : type.getInterfaces()) {
+				if (Modifier.isPublic(implemented.getModifiers())) {
+					interfaces.add(implemented);
+				}
+			}
+		}
+		return (A) Proxy.newProxyInstance(actual.getClass().getClassLoader(),
+				interfaces.toArray(new Class<?>[interfaces.size()]),
+				new CallCounter(actual));
+	}
+
+	/**
+	 * @return the counter of the given proxy, {@code null} if the given value
+	 *         has not been wrapped.
+	 */
+	static CallCounter of(Object actual) {
+		if (actual != null && Proxy.isProxyClass(actual.getClass())) {
+			InvocationHandler handler = Proxy.getInvocationHandler(actual);
+			if (handler instanceof CallCounter) {
+				return (CallCounter) handler;
+			}
+		}
+		return null;
+	}
+
+	Object target() {
+		return target;
+	}
+
+	public Object invoke(Object proxy, Method method, Object[] args)
+			throws Throwable {
+		if (method.getDeclaringClass() != Object.class) {
+			AtomicInteger count = counts.get(method.getName());
+			if (count == null) {
+				AtomicInteger first = new AtomicInteger();
+				count = counts.putIfAbsent(method.getName(), first);
+				if (count == null) {
+					count = first;
+				}
+			}
+			count.incrementAndGet();
+		}
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	void reset() {
+		counts.clear();
+	}
+
+	/**
+	 * @return the number of calls of each method since the last
+	 *         {@link #reset()}, by method name.
+	 */
+	Map<String, Integer> counts() {
+		Map<String, Integer> snapshot = new TreeMap<String, Integer>();
+		for (Map.Entry<String, AtomicInteger> count : counts.entrySet()) {
+			snapshot.put(count.getKey(), count.getValue().get());
+		}
+		return Collections.unmodifiableMap(snapshot);
+	}
+}
@@ -0,0 +1,47 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Messages of the failed checks of soft assertions.
+ * 
+ * <p>
+ * A failure is only recorded as its message: no {@link AssertionError} (and no
+ * stack trace) is created until {@link #assertAll()}.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+class FailureCollector {
+
+	private final List<String> messages = new ArrayList<String>();
+
+	void record(String message) {
+		messages.add(message);
+	}
+
+	List<String> messages() {
+		return Collections.unmodifiableList(messages);
+	}
+
+	/**
+	 * @throws AssertionError
+	 *             with the messages of every recorded failure, if any.
+	 */
+	void assertAll() {
+		if (messages.isEmpty()) {
+			return;
+		}
+		StringBuilder report = new StringBuilder();
+		report.append("The following ").append(messages.size())
+				.append(messages.size() == 1 ? " assertion" : " assertions")
+				.append(" failed:");
+		for (int i = 0; i < messages.size(); i++) {
+			report.append('\n').append(i + 1).append(") ")
+					.append(messages.get(i));
+		}
+		throw new AssertionError(report.toString());
+	}
+}
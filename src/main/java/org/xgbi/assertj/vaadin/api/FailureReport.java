@@ -0,0 +1,218 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded description of the mismatches found by an assertion, given as a
+ * {@code %s} argument of the failure message.
+ *
+ * <p>
+ * The mismatches are counted by category, but only the first ones are kept,
+ * so that the message does not grow with the size of the compared data, for
+ * example
+ * {@code missing itemIds [c], changed itemIds [1, 2, 3, ... <997> more]}.
+ * The text is only rendered when the message is built, that is when the
+ * assertion fails; the entries given as a format are only formatted if they
+ * are kept. Optionally every mismatch is kept and written to a temporary
+ * file, whose path ends the text.
+ *
+ * <p>
+ * Every assertion of this library reporting many mismatches (itemIds,
+ * component paths, snapshot differences...) uses this class, with at most
+ * {@value #MAX_REPORTED} mismatches described by default.
+ *
+ * @author Vincent Demeester
+ *
+ */
+public final class FailureReport {
+
+	public static final int MAX_REPORTED = 20;
+
+	private final int maxReported;
+	private final boolean full;
+	private final Map<String, Category> categories = new LinkedHashMap<String, Category>();
+	private int reported;
+	private String rendered;
+
+	/**
+	 * @param maxReported
+	 *            the maximum number of mismatches described, all categories
+	 *            together.
+	 * @param full
+	 *            {@code true} to keep every mismatch and write them to a
+	 *            temporary file when the report is rendered.
+	 */
+	public FailureReport(int maxReported, boolean full) {
+		this.maxReported = maxReported;
+		this.full = full;
+	}
+
+	/**
+	 * A report describing the first {@value #MAX_REPORTED} mismatches.
+	 */
+	public FailureReport() {
+		this(MAX_REPORTED, false);
+	}
+
+	/**
+	 * Declare a category, so that it is rendered (possibly empty) at this
+	 * position.
+	 *
+	 * @param name
+	 *            the name of the category.
+	 * @return this {@link FailureReport}.
+	 */
+	public FailureReport category(String name) {
+		if (!categories.containsKey(name)) {
+			categories.put(name, new Category());
+		}
+		return this;
+	}
+
+	/**
+	 * @param category
+	 *            the name of the category of the mismatch.
+	 * @param entry
+	 *            the mismatch (an itemId, a path...).
+	 */
+	public void add(String category, Object entry) {
+		category(category);
+		Category current = categories.get(category);
+		current.count++;
+		if (keepsNext()) {
+			current.entries.add(entry);
+		}
+		if (reported < maxReported) {
+			current.shown++;
+			reported++;
+		}
+		rendered = null;
+	}
+
+	/**
+	 * @param category
+	 *            the name of the category of the mismatch.
+	 * @param format
+	 *            the description of the mismatch, see
+	 *            {@link String#format(String, Object...)}; it is only
+	 *            formatted if the mismatch is kept.
+	 * @param arguments
+	 *            the arguments of the format.
+	 */
+	public void add(String category, String format, Object... arguments) {
+		add(category, keepsNext() ? String.format(format, arguments) : null);
+	}
+
+	/**
+	 * @return {@code true} if the next mismatch will be kept, so that its
+	 *         description is worth building.
+	 */
+	public boolean keepsNext() {
+		return full || reported < maxReported;
+	}
+
+	/**
+	 * @param category
+	 *            the name of the category of the mismatch.
+	 * @param entries
+	 *            the mismatches.
+	 * @return this {@link FailureReport}.
+	 */
+	public FailureReport addAll(String category, Iterable<?> entries) {
+		category(category);
+		for (Object entry : entries) {
+			add(category, entry);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the number of mismatches, all categories together.
+	 */
+	public int count() {
+		int count = 0;
+		for (Category category : categories.values()) {
+			count += category.count;
+		}
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count() == 0;
+	}
+
+	@Override
+	public String toString() {
+		if (rendered == null) {
+			rendered = render();
+		}
+		return rendered;
+	}
+
+	private String render() {
+		StringBuilder text = new StringBuilder();
+		for (Map.Entry<String, Category> entry : categories.entrySet()) {
+			if (text.length() > 0) {
+				text.append(", ");
+			}
+			Category category = entry.getValue();
+			text.append(entry.getKey()).append(" [");
+			for (int i = 0; i < category.shown; i++) {
+				if (i > 0) {
+					text.append(", ");
+				}
+				text.append(category.entries.get(i));
+			}
+			if (category.count > category.shown) {
+				text.append(category.shown > 0 ? ", ... <" : "... <")
+						.append(category.count - category.shown)
+						.append("> more");
+			}
+			text.append(']');
+		}
+		if (full && count() > reported) {
+			text.append(" (").append(writeFullReport()).append(')');
+		}
+		return text.toString();
+	}
+
+	private String writeFullReport() {
+		try {
+			File file = File.createTempFile("assertj-vaadin-", ".txt");
+			Writer writer = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(file), "UTF-8"));
+			try {
+				for (Map.Entry<String, Category> entry : categories
+						.entrySet()) {
+					for (Object mismatch : entry.getValue().entries) {
+						writer.write(entry.getKey());
+						writer.write('\t');
+						writer.write(String.valueOf(mismatch));
+						writer.write('\n');
+					}
+				}
+			} finally {
+				writer.close();
+			}
+			return "full report in " + file.getPath();
+		} catch (IOException e) {
+			return "the full report could not be written: " + e.getMessage();
+		}
+	}
+
+	private static class Category {
+
+		final List<Object> entries = new ArrayList<Object>();
+		int count;
+		int shown;
+	}
+}
@@ -0,0 +1,124 @@
+package org.xgbi.assertj.vaadin.api;
+
+import java.util.List;
+
+import org.xgbi.assertj.vaadin.api.component.ComponentAssert;
+import org.xgbi.assertj.vaadin.api.component.ComponentContainerAssert;
+import org.xgbi.assertj.vaadin.api.component.TabSheetAssert;
+import org.xgbi.assertj.vaadin.api.container.ContainerAssert;
+import org.xgbi.assertj.vaadin.api.container.HierarchicalContainerAssert;
+
+import com.vaadin.data.Container;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+import com.vaadin.ui.TabSheet;
+
+/**
+ * The entry point for soft Vaadin assertions: the failed checks are recorded
+ * and reported all together by {@link #assertAll()}.
+ * 
+ * <pre>
+ * SoftVaadinAssertions softly = new SoftVaadinAssertions();
+ * softly.assertThat(form).allDescendantsAreEnabled();
+ * softly.assertThat(container).hasSize(3).hasPropertyId(&quot;name&quot;);
+ * softly.assertAll();
+ * </pre>
+ * 
+ * <p>
+ * A failed check only records its message, no {@link AssertionError} is
+ * thrown before {@link #assertAll()}. This holds for the checks inherited
+ * from assertj too ({@code isEqualTo}, {@code isSameAs},
+ * {@code isInstanceOf}, {@code is(Condition)}...), except
+ * {@code isNotNull()}: a {@code null} actual value and an invalid argument
+ * still fail immediately, as no check can go on without them; this includes
+ * the checks chained after a {@code find} or {@code select} that found no
+ * component.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public class SoftVaadinAssertions {
+
+	private final FailureCollector collector = new FailureCollector();
+
+	/**
+	 * Create a soft assertion on the given {@link Container}.
+	 * 
+	 * @param actual
+	 *            the {@link Container} to check.
+	 * @return a new {@link ContainerAssert} sharing the failures of this
+	 *         object.
+	 */
+	public ContainerAssert assertThat(Container actual) {
+		return soft(new ContainerAssert(actual));
+	}
+
+	/**
+	 * Create a soft assertion on the given {@link Container.Hierarchical}.
+	 * 
+	 * @param actual
+	 *            the {@link Container.Hierarchical} to check.
+	 * @return a new {@link HierarchicalContainerAssert} sharing the failures of
+	 *         this object.
+	 */
+	public HierarchicalContainerAssert assertThat(Container.Hierarchical actual) {
+		return soft(new HierarchicalContainerAssert(actual));
+	}
+
+	/**
+	 * Create a soft assertion on the given {@link Component}.
+	 * 
+	 * @param actual
+	 *            the {@link Component} to check.
+	 * @return a new {@link ComponentAssert} sharing the failures of this
+	 *         object.
+	 */
+	public ComponentAssert assertThat(Component actual) {
+		return soft(new ComponentAssert(actual));
+	}
+
+	/**
+	 * Create a soft assertion on the given {@link ComponentContainer}.
+	 * 
+	 * @param actual
+	 *            the {@link ComponentContainer} to check.
+	 * @return a new {@link ComponentContainerAssert} sharing the failures of
+	 *         this object.
+	 */
+	public ComponentContainerAssert assertThat(ComponentContainer actual) {
+		return soft(new ComponentContainerAssert(actual));
+	}
+
+	/**
+	 * Create a soft assertion on the given {@link TabSheet}.
+	 * 
+	 * @param actual
+	 *            the {@link TabSheet} to check.
+	 * @return a new {@link TabSheetAssert} sharing the failures of this object.
+	 */
+	public TabSheetAssert assertThat(TabSheet actual) {
+		return soft(new TabSheetAssert(actual));
+	}
+
+	/**
+	 * @return the messages of the failures recorded so far.
+	 */
+	public List<String> failureMessages() {
+		return collector.messages();
+	}
+
+	/**
+	 * Assert that none of the soft assertions failed.
+	 * 
+	 * @throws AssertionError
+	 *             with the messages of every recorded failure, if any.
+	 */
+	public void assertAll() {
+		collector.assertAll();
+	}
+
+	private <T extends AbstractAssert<?, ?>> T soft(T assertion) {
+		assertion.collector = collector;
+		return assertion;
+	}
+}
@@ -0,0 +1,83 @@
+package org.xgbi.assertj.vaadin.api;
+
+import org.assertj.core.api.Condition;
+import org.assertj.core.description.Description;
+import org.assertj.core.error.MessageFormatter;
+
+/**
+ * A {@link Condition} that can also explain why a value does not match it.
+ * 
+ * <p>
+ * Testing a value with {@link #matches(Object)} never throws nor allocates a
+ * message: the description of the condition and the failure message are only
+ * formatted when {@link #description()} or {@link #failureMessage(Object)} is
+ * called. The failure messages are the ones of the matching assertions.
+ * 
+ * @param <T>
+ *            the type of the values tested by this condition.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public abstract class VaadinCondition<T> extends Condition<T> {
+
+	/**
+	 * @param description
+	 *            the format of the description of the condition.
+	 * @param arguments
+	 *            the arguments of the format of the description.
+	 */
+	protected VaadinCondition(String description, Object... arguments) {
+		super(new LazyDescription(description, arguments));
+	}
+
+	/**
+	 * @param actual
+	 *            a value that does not match this condition.
+	 * @return the message the matching assertion fails with for the given
+	 *         value.
+	 */
+	public String failureMessage(T actual) {
+		if (actual == null) {
+			return "Expecting actual not to be null";
+		}
+		return describeFailure(actual);
+	}
+
+	/**
+	 * @param actual
+	 *            a non {@code null} value that does not match this condition.
+	 * @return the message the matching assertion fails with for the given
+	 *         value, usually built with {@link #format(String, Object...)}.
+	 */
+	protected abstract String describeFailure(T actual);
+
+	/**
+	 * @return the given message format filled like the ones of the
+	 *         assertions ({@link String} arguments are quoted).
+	 */
+	protected static String format(String format, Object... arguments) {
+		return MessageFormatter.instance().format(null, format, arguments);
+	}
+
+	private static class LazyDescription extends Description {
+
+		private final String format;
+		private final Object[] arguments;
+		private String value;
+
+		LazyDescription(String format, Object[] arguments) {
+			this.format = format;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public String value() {
+			if (value == null) {
+				value = arguments.length == 0 ? format : format(format,
+						arguments);
+			}
+			return value;
+		}
+	}
+}
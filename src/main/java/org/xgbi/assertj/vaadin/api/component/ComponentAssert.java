@@ -3,6 +3,7 @@ package org.xgbi.assertj.vaadin.api.component;
 import org.xgbi.assertj.vaadin.api.AbstractAssert;
 
 import com.vaadin.terminal.Resource;
+import com.vaadin.ui.AbstractComponent;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.TabSheet;
 
@@ -14,6 +15,20 @@ import com.vaadin.ui.TabSheet;
  */
 public class ComponentAssert extends AbstractAssert<ComponentAssert, Component> {
 
+	/** Failure messages, shared with {@link ComponentConditions}. */
+	static final String SHOULD_BE_READ_ONLY = "The component <%s> should be read-only, but was not.";
+	static final String SHOULD_NOT_BE_READ_ONLY = "The component <%s> should not be read-only, but was.";
+	static final String SHOULD_BE_ENABLED = "The component <%s> should be enabled, but was not.";
+	static final String SHOULD_NOT_BE_ENABLED = "The component <%s> should not be enabled, but was.";
+	static final String SHOULD_BE_IMMEDIATE = "The component <%s> should be immediate, but was not.";
+	static final String SHOULD_BE_VISIBLE = "The component <%s> should be visible, but was not.";
+	static final String SHOULD_NOT_BE_VISIBLE = "The component <%s> should not be visible, but was.";
+	static final String SHOULD_HAVE_STYLE_NULL = "Component <%s> should have the style <%s> but was null.";
+	static final String SHOULD_HAVE_STYLE = "Component <%s> should have the style <%s> but was <%s>.";
+	static final String SHOULD_HAVE_CAPTION_NULL = "Component <%s> should have the caption <%s> but was null.";
+	static final String SHOULD_HAVE_CAPTION = "Component <%s> should have the caption <%s> but was <%s>.";
+	static final String SHOULD_HAVE_NO_CAPTION = "Component <%s> should have no caption but had one.";
+
 	public ComponentAssert(Component actual) {
 		super(actual, ComponentAssert.class);
 	}
@@ -38,13 +53,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is not read-only.
 	 */
 	public ComponentAssert isReadOnly() {
-		isNotNull();
-		if (!actual.isReadOnly()) {
-			failWithMessage(
-					"The component <%s> should be read-only, but was not.",
-					actual);
+		started("isReadOnly");
+		try {
+			isNotNull();
+			if (!actual.isReadOnly()) {
+				failWithMessage(SHOULD_BE_READ_ONLY, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -58,13 +76,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is read-only.
 	 */
 	public ComponentAssert isNotReadOnly() {
-		isNotNull();
-		if (actual.isReadOnly()) {
-			failWithMessage(
-					"The component <%s> should not be read-only, but was.",
-					actual);
+		started("isNotReadOnly");
+		try {
+			isNotNull();
+			if (actual.isReadOnly()) {
+				failWithMessage(SHOULD_NOT_BE_READ_ONLY, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -78,13 +99,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is not enabled.
 	 */
 	public ComponentAssert isEnabled() {
-		isNotNull();
-		if (!actual.isEnabled()) {
-			failWithMessage(
-					"The component <%s> should be enabled, but was not.",
-					actual);
+		started("isEnabled");
+		try {
+			isNotNull();
+			if (!actual.isEnabled()) {
+				failWithMessage(SHOULD_BE_ENABLED, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -98,13 +122,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is enabled.
 	 */
 	public ComponentAssert isNotEnabled() {
-		isNotNull();
-		if (actual.isEnabled()) {
-			failWithMessage(
-					"The component <%s> should not be enabled, but was.",
-					actual);
+		started("isNotEnabled");
+		try {
+			isNotNull();
+			if (actual.isEnabled()) {
+				failWithMessage(SHOULD_NOT_BE_ENABLED, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -119,7 +146,12 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is enabled.
 	 */
 	public ComponentAssert isDisabled() {
-		return isNotEnabled();
+		started("isDisabled");
+		try {
+			return finished(isNotEnabled());
+		} finally {
+			ended();
+		}
 	}
 
 	/**
@@ -133,13 +165,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is not immediate.
 	 */
 	public ComponentAssert isImmediate() {
-		isNotNull();
-		if (!actual.isImmediate()) {
-			failWithMessage(
-					"The component <%s> should be immediate, but was not.",
-					actual);
+		started("isImmediate");
+		try {
+			isNotNull();
+			if (!actual.isImmediate()) {
+				failWithMessage(SHOULD_BE_IMMEDIATE, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -153,13 +188,18 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is immediate.
 	 */
 	public ComponentAssert isNotImmediate() {
-		isNotNull();
-		if (actual.isImmediate()) {
-			failWithMessage(
-					"The component <%s> should not be immediate, but was.",
-					actual);
+		started("isNotImmediate");
+		try {
+			isNotNull();
+			if (actual.isImmediate()) {
+				failWithMessage(
+						"The component <%s> should not be immediate, but was.",
+						actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -173,13 +213,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is not visible.
 	 */
 	public ComponentAssert isVisible() {
-		isNotNull();
-		if (!actual.isVisible()) {
-			failWithMessage(
-					"The component <%s> should be visible, but was not.",
-					actual);
+		started("isVisible");
+		try {
+			isNotNull();
+			if (!actual.isVisible()) {
+				failWithMessage(SHOULD_BE_VISIBLE, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -193,13 +236,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} is visible.
 	 */
 	public ComponentAssert isNotVisible() {
-		isNotNull();
-		if (actual.isVisible()) {
-			failWithMessage(
-					"The component <%s> should not be visible, but was.",
-					actual);
+		started("isNotVisible");
+		try {
+			isNotNull();
+			if (actual.isVisible()) {
+				failWithMessage(SHOULD_NOT_BE_VISIBLE, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -218,18 +264,19 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             styleName.
 	 */
 	public ComponentAssert hasStyleName(String style) {
-		isNotNull();
-		if (actual.getStyleName() == null) {
-			failWithMessage(
-					"Component <%s> should have the style <%s> but was null.",
-					actual, style);
-		}
-		if (!actual.getStyleName().equals(style)) {
-			failWithMessage(
-					"Component <%s> should have the style <%s> but was <%s>.",
-					actual, style, actual.getStyleName());
+		started("hasStyleName");
+		try {
+			isNotNull();
+			if (actual.getStyleName() == null) {
+				failWithMessage(SHOULD_HAVE_STYLE_NULL, actual, style);
+			} else if (!actual.getStyleName().equals(style)) {
+				failWithMessage(SHOULD_HAVE_STYLE, actual, style,
+						actual.getStyleName());
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -248,18 +295,19 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             caption.
 	 */
 	public ComponentAssert hasCaption(String caption) {
-		isNotNull();
-		if (actual.getCaption() == null) {
-			failWithMessage(
-					"Component <%s> should have the caption <%s> but was null.",
-					actual, caption);
+		started("hasCaption");
+		try {
+			isNotNull();
+			if (actual.getCaption() == null) {
+				failWithMessage(SHOULD_HAVE_CAPTION_NULL, actual, caption);
+			} else if (!actual.getCaption().equals(caption)) {
+				failWithMessage(SHOULD_HAVE_CAPTION, actual, caption,
+						actual.getCaption());
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		if (!actual.getCaption().equals(caption)) {
-			failWithMessage(
-					"Component <%s> should have the caption <%s> but was <%s>.",
-					actual, caption, actual.getCaption());
-		}
-		return this;
 	}
 
 	/**
@@ -273,13 +321,16 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} has a caption.
 	 */
 	public ComponentAssert hasNoCaption() {
-		isNotNull();
-		if (actual.getCaption() != null) {
-			failWithMessage(
-					"Component <%s> should have no caption but had one.",
-					actual);
+		started("hasNoCaption");
+		try {
+			isNotNull();
+			if (actual.getCaption() != null) {
+				failWithMessage(SHOULD_HAVE_NO_CAPTION, actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -298,18 +349,22 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             styleName.
 	 */
 	public ComponentAssert hasIcon(Resource icon) {
-		isNotNull();
-		if (actual.getIcon() == null) {
-			failWithMessage(
-					"Component <%s> should have the icon <%s> but was null.",
-					actual, icon);
-		}
-		if (actual.getIcon() != icon) {
-			failWithMessage(
-					"Component <%s> should have the icon <%s> but was <%s>.",
-					actual, icon, actual.getIcon());
+		started("hasIcon");
+		try {
+			isNotNull();
+			if (actual.getIcon() == null) {
+				failWithMessage(
+						"Component <%s> should have the icon <%s> but was null.",
+						actual, icon);
+			} else if (actual.getIcon() != icon) {
+				failWithMessage(
+						"Component <%s> should have the icon <%s> but was <%s>.",
+						actual, icon, actual.getIcon());
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -323,12 +378,17 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} has an icon.
 	 */
 	public ComponentAssert hasNoIcon() {
-		isNotNull();
-		if (actual.getIcon() != null) {
-			failWithMessage("Component <%s> should have no icon but had one.",
-					actual);
+		started("hasNoIcon");
+		try {
+			isNotNull();
+			if (actual.getIcon() != null) {
+				failWithMessage("Component <%s> should have no icon but had one.",
+						actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -342,12 +402,17 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} has no parent.
 	 */
 	public ComponentAssert hasParent() {
-		isNotNull();
-		if (actual.getParent() == null) {
-			failWithMessage(
-					"Component <%s> should have a parent but had none.", actual);
+		started("hasParent");
+		try {
+			isNotNull();
+			if (actual.getParent() == null) {
+				failWithMessage(
+						"Component <%s> should have a parent but had none.", actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -367,14 +432,21 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             parent.
 	 */
 	public ComponentAssert hasParent(Component parent) {
-		isNotNull();
-		hasParent();
-		if (actual.getParent() != parent) {
-			failWithMessage(
-					"Component <%s> should have the parent <%s> but was <%s>.",
-					actual, parent, actual.getParent());
+		started("hasParent");
+		try {
+			isNotNull();
+			if (actual.getParent() == null) {
+				failWithMessage(
+						"Component <%s> should have a parent but had none.", actual);
+			} else if (actual.getParent() != parent) {
+				failWithMessage(
+						"Component <%s> should have the parent <%s> but was <%s>.",
+						actual, parent, actual.getParent());
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -388,13 +460,138 @@ public class ComponentAssert extends AbstractAssert<ComponentAssert, Component>
 	 *             if the actual {@link Component} has a parent.
 	 */
 	public ComponentAssert hasNoParent() {
-		isNotNull();
-		if (actual.getParent() != null) {
-			failWithMessage(
-					"Component <%s> should have no parent, but had one.",
-					actual);
+		started("hasNoParent");
+		try {
+			isNotNull();
+			if (actual.getParent() != null) {
+				failWithMessage(
+						"Component <%s> should have no parent, but had one.",
+						actual);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
+	}
+
+	/**
+	 * Assert that the {@link Component} has at least one listener for the
+	 * given event type, or for the event type of the given listener
+	 * interface (see {@link AbstractComponent#getListeners(Class)}).
+	 * 
+	 * @param type
+	 *            the event type or the listener interface to look for.
+	 * @return this {@link ComponentAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given type is {@code null}, or is neither an event
+	 *             type nor a listener interface.
+	 * @throws AssertionError
+	 *             if the actual {@link Component} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Component} has no listener for the
+	 *             given type.
+	 */
+	public ComponentAssert hasListener(Class<?> type) {
+		started("hasListener");
+		try {
+			isNotNull();
+			Class<?> eventType = eventTypeOf(type);
+			if (ComponentListeners.count(actual, eventType) == 0) {
+				failWithMessage(
+						"Expected at least 1 listener of event type : <%s>",
+						eventType);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the {@link Component} has the given number of listeners for
+	 * the given event type, or for the event type of the given listener
+	 * interface.
+	 * 
+	 * @param type
+	 *            the event type or the listener interface to look for.
+	 * @param count
+	 *            the expected number of listeners.
+	 * @return this {@link ComponentAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given type is {@code null}, or is neither an event
+	 *             type nor a listener interface.
+	 * @throws AssertionError
+	 *             if the actual {@link Component} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Component} has another number of
+	 *             listeners for the given type.
+	 */
+	public ComponentAssert hasListenerCount(Class<?> type, int count) {
+		started("hasListenerCount");
+		try {
+			isNotNull();
+			Class<?> eventType = eventTypeOf(type);
+			int actualCount = ComponentListeners.count(actual, eventType);
+			if (actualCount != count) {
+				failWithMessage(
+						"Expected <%s> listeners of event type <%s>, but found <%s>.",
+						count, eventType, actualCount);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the {@link Component} has no listener for the given event
+	 * type, or for the event type of the given listener interface.
+	 * 
+	 * @param type
+	 *            the event type or the listener interface to look for.
+	 * @return this {@link ComponentAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given type is {@code null}, or is neither an event
+	 *             type nor a listener interface.
+	 * @throws AssertionError
+	 *             if the actual {@link Component} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Component} has a listener for the
+	 *             given type.
+	 */
+	public ComponentAssert hasNoListenerOfType(Class<?> type) {
+		started("hasNoListenerOfType");
+		try {
+			isNotNull();
+			Class<?> eventType = eventTypeOf(type);
+			int actualCount = ComponentListeners.count(actual, eventType);
+			if (actualCount != 0) {
+				failWithMessage(
+						"Expected no listener of event type <%s>, but found <%s>.",
+						eventType, actualCount);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the given type is {@code null}, or is neither an event
+	 *             type nor a listener interface.
+	 */
+	Class<?> eventTypeOf(Class<?> type) {
+		throwIllegalArgumentExceptionIfTrue(type == null,
+				"The event type to look for should not be null");
+		Class<?> eventType = ComponentListeners.eventTypeOf(type);
+		throwIllegalArgumentExceptionIfTrue(eventType == null, "The type <"
+				+ type.getName()
+				+ "> should be an event type or a listener interface");
+		return eventType;
 	}
 
 }
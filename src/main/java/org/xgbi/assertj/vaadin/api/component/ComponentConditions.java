@@ -0,0 +1,201 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import org.xgbi.assertj.vaadin.api.VaadinCondition;
+
+import com.vaadin.ui.Component;
+
+/**
+ * The checks of {@link ComponentAssert} as reusable, non-throwing
+ * {@link VaadinCondition}s, for example to filter or classify many components:
+ * 
+ * <pre>
+ * VaadinCondition&lt;Component&gt; enabled = ComponentConditions.enabled();
+ * for (Component component : components) {
+ * 	if (!enabled.matches(component)) {
+ * 		log(enabled.failureMessage(component));
+ * 	}
+ * }
+ * </pre>
+ * 
+ * Each call returns a new condition, so that describing it (see
+ * {@link VaadinCondition#as(String, Object...)}) does not change the others.
+ * Its failure messages are the ones of {@link ComponentAssert}.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public final class ComponentConditions {
+
+	private ComponentConditions() {
+	}
+
+	public static VaadinCondition<Component> enabled() {
+		return new VaadinCondition<Component>("enabled") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && value.isEnabled();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_BE_ENABLED, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> disabled() {
+		return new VaadinCondition<Component>("disabled") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && !value.isEnabled();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_NOT_BE_ENABLED, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> readOnly() {
+		return new VaadinCondition<Component>("read-only") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && value.isReadOnly();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_BE_READ_ONLY, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> notReadOnly() {
+		return new VaadinCondition<Component>("not read-only") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && !value.isReadOnly();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_NOT_BE_READ_ONLY, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> visible() {
+		return new VaadinCondition<Component>("visible") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && value.isVisible();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_BE_VISIBLE, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> notVisible() {
+		return new VaadinCondition<Component>("not visible") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && !value.isVisible();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_NOT_BE_VISIBLE, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> immediate() {
+		return new VaadinCondition<Component>("immediate") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && value.isImmediate();
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_BE_IMMEDIATE, actual);
+			}
+		};
+	}
+
+	public static VaadinCondition<Component> noCaption() {
+		return new VaadinCondition<Component>("without caption") {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && value.getCaption() == null;
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return format(ComponentAssert.SHOULD_HAVE_NO_CAPTION, actual);
+			}
+		};
+	}
+
+	/**
+	 * @param caption
+	 *            the expected caption.
+	 * @return a condition matching the components with the given caption.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given caption is {@code null}.
+	 */
+	public static VaadinCondition<Component> caption(final String caption) {
+		if (caption == null) {
+			throw new IllegalArgumentException(
+					"The caption to look for should not be null");
+		}
+		return new VaadinCondition<Component>("with the caption %s", caption) {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && caption.equals(value.getCaption());
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return actual.getCaption() == null ? format(
+						ComponentAssert.SHOULD_HAVE_CAPTION_NULL, actual, caption)
+						: format(ComponentAssert.SHOULD_HAVE_CAPTION, actual,
+								caption, actual.getCaption());
+			}
+		};
+	}
+
+	/**
+	 * @param style
+	 *            the expected style name.
+	 * @return a condition matching the components with the given style name.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given style name is {@code null}.
+	 */
+	public static VaadinCondition<Component> styleName(final String style) {
+		if (style == null) {
+			throw new IllegalArgumentException(
+					"The style name to look for should not be null");
+		}
+		return new VaadinCondition<Component>("with the style %s", style) {
+			@Override
+			public boolean matches(Component value) {
+				return value != null && style.equals(value.getStyleName());
+			}
+
+			@Override
+			protected String describeFailure(Component actual) {
+				return actual.getStyleName() == null ? format(
+						ComponentAssert.SHOULD_HAVE_STYLE_NULL, actual, style)
+						: format(ComponentAssert.SHOULD_HAVE_STYLE, actual,
+								style, actual.getStyleName());
+			}
+		};
+	}
+}
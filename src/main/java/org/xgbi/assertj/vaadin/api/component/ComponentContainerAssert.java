@@ -1,16 +1,35 @@
 package org.xgbi.assertj.vaadin.api.component;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
 import com.vaadin.ui.Component;
 import com.vaadin.ui.ComponentContainer;
 
 /**
  * Assertions for Vaadin {@link ComponentContainer}.
  * 
+ * <p>
+ * The {@code find} methods look for a single descendant of the
+ * {@link ComponentContainer}. The first one walks the component tree once to
+ * build a {@link ComponentTreeIndex}, the following ones use that index.
+ * 
+ * <p>
+ * Likewise the {@code allDescendants...} and {@code noDescendant...}
+ * assertions read the states of every descendant in a single walk
+ * ({@link ComponentStates}), shared by the chained assertions.
+ * 
  * @author Vincent Demeester
  * 
  */
 public class ComponentContainerAssert extends ComponentAssert {
 
+	private ComponentTreeIndex index;
+	private ComponentStates states;
+
 	public ComponentContainerAssert(ComponentContainer actual) {
 		super(actual, ComponentContainerAssert.class);
 	}
@@ -24,4 +43,402 @@ public class ComponentContainerAssert extends ComponentAssert {
 		return (ComponentContainer) super.getActual();
 	}
 
+	ComponentTreeIndex index() {
+		if (index == null) {
+			index = ComponentTreeIndex.of(getActual());
+		}
+		return index;
+	}
+
+	ComponentStates states() {
+		if (states == null) {
+			states = ComponentStates.of(getActual());
+		}
+		return states;
+	}
+
+	/**
+	 * Find the only descendant of the {@link ComponentContainer} of the given
+	 * type (or a subtype).
+	 * 
+	 * @param type
+	 *            the type of the component to look for.
+	 * @return a new {@link ComponentAssert} for the found component.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given type is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if no descendant or more than one is of the given type.
+	 */
+	public ComponentAssert find(Class<? extends Component> type) {
+		started("find");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(type == null,
+					"The type to look for should not be null");
+			return finished(single("of type " + type.getName(),
+					index().byType(type)));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Find the only descendant of the {@link ComponentContainer} with the
+	 * given caption.
+	 * 
+	 * @param caption
+	 *            the caption of the component to look for.
+	 * @return a new {@link ComponentAssert} for the found component.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given caption is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if no descendant or more than one has the given caption.
+	 */
+	public ComponentAssert findByCaption(String caption) {
+		started("findByCaption");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(caption == null,
+					"The caption to look for should not be null");
+			return finished(single("with the caption " + caption,
+					index().byCaption(caption)));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Find the only descendant of the {@link ComponentContainer} having the
+	 * given style name (among its space-separated style names).
+	 * 
+	 * @param styleName
+	 *            the style name of the component to look for.
+	 * @return a new {@link ComponentAssert} for the found component.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given style name is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if no descendant or more than one has the given style name.
+	 */
+	public ComponentAssert findByStyleName(String styleName) {
+		started("findByStyleName");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(styleName == null,
+					"The style name to look for should not be null");
+			return finished(single("with the style " + styleName,
+					index().byStyleName(styleName)));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Find the only descendant of the {@link ComponentContainer} with the
+	 * given debug id.
+	 * 
+	 * @param debugId
+	 *            the debug id of the component to look for.
+	 * @return a new {@link ComponentAssert} for the found component.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given debug id is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if no descendant or more than one has the given debug id.
+	 */
+	public ComponentAssert findByDebugId(String debugId) {
+		started("findByDebugId");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(debugId == null,
+					"The debug id to look for should not be null");
+			return finished(single("with the debug id " + debugId,
+					index().byDebugId(debugId)));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Select the only descendant of the {@link ComponentContainer} matching
+	 * the given CSS-like selector, for example
+	 * {@code VerticalLayout > Button.primary[caption='Save']:enabled}. See
+	 * {@link ComponentSelector} for the syntax.
+	 * 
+	 * @param selector
+	 *            the selector of the component to look for.
+	 * @return a new {@link ComponentAssert} for the selected component.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given selector is {@code null} or not valid.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if no descendant or more than one matches the selector.
+	 */
+	public ComponentAssert select(String selector) {
+		started("select");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(selector == null,
+					"The selector should not be null");
+			return finished(single("matching " + selector, ComponentSelector
+					.compile(selector).select(getActual())));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the given number of descendants of the
+	 * {@link ComponentContainer} match the given CSS-like selector. See
+	 * {@link ComponentSelector} for the syntax.
+	 * 
+	 * @param selector
+	 *            the selector of the components to look for.
+	 * @param count
+	 *            the expected number of matching components.
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given selector is {@code null} or not valid.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if another number of descendants match the selector.
+	 */
+	public ComponentContainerAssert hasSelectionCount(String selector,
+			int count) {
+		started("hasSelectionCount");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(selector == null,
+					"The selector should not be null");
+			int actualCount = ComponentSelector.compile(selector)
+					.select(getActual()).size();
+			if (actualCount != count) {
+				failWithMessage(
+						"Expected <%s> components matching <%s>, but found <%s>.",
+						count, selector, actualCount);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that every descendant of the {@link ComponentContainer} is
+	 * enabled.
+	 * 
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if a descendant is not enabled.
+	 */
+	public ComponentContainerAssert allDescendantsAreEnabled() {
+		started("allDescendantsAreEnabled");
+		try {
+			isNotNull();
+			return finished(noOffendingDescendant("enabled", states()
+					.disabled()));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that no descendant of the {@link ComponentContainer} is
+	 * read-only.
+	 * 
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if a descendant is read-only.
+	 */
+	public ComponentContainerAssert noDescendantIsReadOnly() {
+		started("noDescendantIsReadOnly");
+		try {
+			isNotNull();
+			return finished(noOffendingDescendant("not read-only", states()
+					.readOnly()));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that every descendant of the {@link ComponentContainer} is
+	 * visible.
+	 * 
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if a descendant is not visible.
+	 */
+	public ComponentContainerAssert allDescendantsVisible() {
+		started("allDescendantsVisible");
+		try {
+			isNotNull();
+			return finished(noOffendingDescendant("visible", states()
+					.hidden()));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that every descendant of the {@link ComponentContainer} is
+	 * immediate.
+	 * 
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if a descendant is not immediate.
+	 */
+	public ComponentContainerAssert allDescendantsImmediate() {
+		started("allDescendantsImmediate");
+		try {
+			isNotNull();
+			return finished(noOffendingDescendant("immediate", states()
+					.notImmediate()));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that no descendant of the {@link ComponentContainer} has more
+	 * than the given number of listeners for the given event type, or for the
+	 * event type of the given listener interface. Listeners added again and
+	 * again to long-lived components are a common leak.
+	 * 
+	 * @param max
+	 *            the maximum number of listeners of a descendant.
+	 * @param type
+	 *            the event type or the listener interface to look for.
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given type is {@code null}, or is neither an event
+	 *             type nor a listener interface.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if a descendant has more listeners for the given type.
+	 */
+	public ComponentContainerAssert noDescendantHasMoreThan(int max,
+			Class<?> type) {
+		started("noDescendantHasMoreThan");
+		try {
+			isNotNull();
+			Class<?> eventType = eventTypeOf(type);
+			FailureReport offenders = ComponentListeners.exceeding(getActual(),
+					eventType, max);
+			if (!offenders.isEmpty()) {
+				failWithMessage(
+						"Expected no descendant to have more than <%s> listeners of event type <%s>, but found %s.",
+						max, eventType, offenders);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the component tree of the {@link ComponentContainer}
+	 * matches the given snapshot file. The structure of the tree and the
+	 * caption, style name, enabled, visible, read-only, immediate and icon
+	 * states of every component are compared.
+	 * 
+	 * <p>
+	 * If the snapshot file does not exist, it is written from the actual tree
+	 * and the assertion passes. Delete the file to record a new snapshot.
+	 * 
+	 * <p>
+	 * Subtrees with the same 64-bit hash (and the same root) are not compared
+	 * line by line, see {@link ComponentTreeSnapshot}.
+	 * 
+	 * @param snapshot
+	 *            the snapshot file.
+	 * @return this {@link ComponentContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given snapshot file is {@code null}.
+	 * @throws IllegalStateException
+	 *             if the snapshot file can not be read or written.
+	 * @throws AssertionError
+	 *             if the actual {@link ComponentContainer} is {@code null}.
+	 * @throws AssertionError
+	 *             if the component tree does not match the snapshot.
+	 */
+	public ComponentContainerAssert matchesTreeSnapshot(File snapshot) {
+		started("matchesTreeSnapshot");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(snapshot == null,
+					"The snapshot file should not be null");
+			ComponentTreeSnapshot actualTree = ComponentTreeSnapshot
+					.of(getActual());
+			try {
+				if (!snapshot.exists()) {
+					actualTree.write(snapshot);
+					return finished(this);
+				}
+				FailureReport differences = ComponentTreeSnapshot.read(snapshot)
+						.diff(actualTree);
+				if (!differences.isEmpty()) {
+					failWithMessage(
+							"Expected the component tree to match the snapshot <%s>, but found %s.",
+							snapshot.getPath(), differences);
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not use the snapshot "
+						+ snapshot, e);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	private ComponentContainerAssert noOffendingDescendant(String state,
+			FailureReport offenders) {
+		if (!offenders.isEmpty()) {
+			failWithMessage(
+					"Expected all the descendants to be %s, but found %s.",
+					state, offenders);
+		}
+		return this;
+	}
+
+	private ComponentAssert single(String description, List<Component> found) {
+		if (found.size() != 1) {
+			failWithMessage(
+					"Expected to find exactly one component %s, but found <%s>.",
+					description, found.size());
+		}
+		return sharingFailures(new ComponentAssert(found.isEmpty() ? null
+				: found.get(0)));
+	}
+
 }
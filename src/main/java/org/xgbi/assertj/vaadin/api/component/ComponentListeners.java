@@ -0,0 +1,119 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.ui.AbstractComponent;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+
+/**
+ * Count of the listeners registered on components, see
+ * {@link AbstractComponent#getListeners(Class)}.
+ *
+ * <p>
+ * The listeners are looked up by event type. A listener interface (for
+ * example {@code Button.ClickListener}) may be given instead: its event type
+ * is the parameter of its only listener method. It is resolved by reflection
+ * once per interface and cached.
+ *
+ * <p>
+ * Components that are not {@link AbstractComponent} do not expose their
+ * listeners and are considered to have none.
+ *
+ * @author Vincent Demeester
+ *
+ */
+final class ComponentListeners {
+
+	private static final String EXCEEDING = "descendants with more listeners";
+
+	private static final ConcurrentMap<Class<?>, Class<?>> EVENT_TYPES = new ConcurrentHashMap<Class<?>, Class<?>>();
+
+	private ComponentListeners() {
+	}
+
+	/**
+	 * @param type
+	 *            an event type or a listener interface.
+	 * @return the event type, or the event type listened to by the given
+	 *         listener interface, or {@code null} if the given type is neither
+	 *         an event type nor a listener interface with a single listener
+	 *         method.
+	 */
+	static Class<?> eventTypeOf(Class<?> type) {
+		Class<?> eventType = EVENT_TYPES.get(type);
+		if (eventType == null) {
+			eventType = resolve(type);
+			if (eventType != null) {
+				EVENT_TYPES.putIfAbsent(type, eventType);
+			}
+		}
+		return eventType;
+	}
+
+	private static Class<?> resolve(Class<?> type) {
+		if (EventObject.class.isAssignableFrom(type)) {
+			return type;
+		}
+		List<Class<?>> eventTypes = new ArrayList<Class<?>>();
+		if (type.isInterface()) {
+			for (Method method : type.getMethods()) {
+				Class<?>[] parameters = method.getParameterTypes();
+				if (Modifier.isAbstract(method.getModifiers())
+						&& parameters.length == 1
+						&& EventObject.class.isAssignableFrom(parameters[0])
+						&& !eventTypes.contains(parameters[0])) {
+					eventTypes.add(parameters[0]);
+				}
+			}
+		}
+		return eventTypes.size() == 1 ? eventTypes.get(0) : null;
+	}
+
+	/**
+	 * @param component
+	 *            a component.
+	 * @param eventType
+	 *            an event type, as returned by {@link #eventTypeOf(Class)}.
+	 * @return the number of listeners of the given component for the given
+	 *         event type (or one of its subtypes).
+	 */
+	static int count(Component component, Class<?> eventType) {
+		if (!(component instanceof AbstractComponent)) {
+			return 0;
+		}
+		return ((AbstractComponent) component).getListeners(eventType).size();
+	}
+
+	/**
+	 * @param root
+	 *            the {@link ComponentContainer} whose descendants are read (the
+	 *            root itself is not).
+	 * @param eventType
+	 *            an event type, as returned by {@link #eventTypeOf(Class)}.
+	 * @param max
+	 *            the maximum number of listeners of a descendant.
+	 * @return the descendants with more than {@code max} listeners, their
+	 *         paths ending with their number of listeners.
+	 */
+	static FailureReport exceeding(ComponentContainer root,
+			Class<?> eventType, int max) {
+		FailureReport offenders = new FailureReport().category(EXCEEDING);
+		for (ComponentWalk walk = new ComponentWalk(root); walk.next();) {
+			int count = count(walk.component(), eventType);
+			if (count > max) {
+				offenders.add(EXCEEDING, offenders.keepsNext() ? walk.path()
+						+ " (" + count + ")" : null);
+			}
+		}
+		return offenders;
+	}
+}
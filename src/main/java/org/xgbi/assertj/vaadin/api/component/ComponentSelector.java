@@ -0,0 +1,428 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.ui.AbstractComponent;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+
+/**
+ * CSS-like selector of the descendants of a {@link ComponentContainer}.
+ *
+ * <p>
+ * A selector is a list of compound selectors separated by {@code >} (child)
+ * or whitespace (descendant). A compound selector is an optional type name
+ * ({@code *} or the simple name of the class of the component or of one of its
+ * superclasses) followed by any number of:
+ * <ul>
+ * <li>{@code .style}: the component has this style name,</li>
+ * <li>{@code #debugId}: the component has this debug id,</li>
+ * <li>{@code [attribute='value']}: the {@code caption}, {@code styleName},
+ * {@code debugId} or {@code description} of the component is the given value,
+ * </li>
+ * <li>{@code :state}: the component is {@code enabled}, {@code disabled},
+ * {@code visible}, {@code hidden}, {@code readonly} or {@code immediate}.</li>
+ * </ul>
+ * For example {@code VerticalLayout > Button.primary[caption='Save']:enabled}.
+ *
+ * <p>
+ * A selector string is parsed once, the last {@value #CACHE_SIZE} compiled
+ * selectors are cached. The matching is done in a single {@link ComponentWalk}
+ * of the tree: each component gets the set of compound selectors matched by
+ * its parent and by its ancestors, so the child and descendant parts of the
+ * selector are never evaluated twice.
+ *
+ * @author Vincent Demeester
+ *
+ */
+final class ComponentSelector {
+
+	static final int CACHE_SIZE = 64;
+
+	/** The last compiled selectors, in access order. */
+	private static final Map<String, ComponentSelector> COMPILED = new LinkedHashMap<String, ComponentSelector>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<String, ComponentSelector> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final String source;
+	private final Compound[] compounds;
+	/** {@code true} at k if the compounds k and k + 1 are separated by '>'. */
+	private final boolean[] childCombinators;
+
+	private ComponentSelector(String source, List<Compound> compounds,
+			List<Boolean> childCombinators) {
+		this.source = source;
+		this.compounds = compounds.toArray(new Compound[compounds.size()]);
+		this.childCombinators = new boolean[childCombinators.size()];
+		for (int i = 0; i < this.childCombinators.length; i++) {
+			this.childCombinators[i] = childCombinators.get(i);
+		}
+	}
+
+	/**
+	 * @param selector
+	 *            the selector to compile.
+	 * @return the compiled selector.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the given selector is not valid.
+	 */
+	static ComponentSelector compile(String selector) {
+		synchronized (COMPILED) {
+			ComponentSelector compiled = COMPILED.get(selector);
+			if (compiled == null) {
+				compiled = new Parser(selector).parse();
+				COMPILED.put(selector, compiled);
+			}
+			return compiled;
+		}
+	}
+
+	/**
+	 * @param root
+	 *            the {@link ComponentContainer} to look into.
+	 * @return the descendants of the given root matching this selector, in
+	 *         depth-first order.
+	 */
+	List<Component> select(ComponentContainer root) {
+		List<Component> selected = new ArrayList<Component>();
+		long last = 1L << (compounds.length - 1);
+		// the compounds matched by the current ancestors, and by theirs
+		long[] matched = new long[16];
+		long[] ancestors = new long[16];
+		matched[0] = matches(root, 0L, 0L);
+		for (ComponentWalk walk = new ComponentWalk(root); walk.next();) {
+			int depth = walk.depth();
+			if (depth == matched.length) {
+				matched = Arrays.copyOf(matched, depth * 2);
+				ancestors = Arrays.copyOf(ancestors, depth * 2);
+			}
+			ancestors[depth] = ancestors[depth - 1] | matched[depth - 1];
+			matched[depth] = matches(walk.component(), matched[depth - 1],
+					ancestors[depth]);
+			if ((matched[depth] & last) != 0) {
+				selected.add(walk.component());
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * @return the bit set of the compounds k such that the selector up to k
+	 *         matches with the compound k on the given component.
+	 */
+	private long matches(Component component, long parentMatched,
+			long ancestorsMatched) {
+		long matched = 0L;
+		for (int k = 0; k < compounds.length; k++) {
+			if (k > 0) {
+				long previous = childCombinators[k - 1] ? parentMatched
+						: ancestorsMatched;
+				if ((previous & (1L << (k - 1))) == 0) {
+					continue;
+				}
+			}
+			if (compounds[k].matches(component)) {
+				matched |= 1L << k;
+			}
+		}
+		return matched;
+	}
+
+	@Override
+	public String toString() {
+		return source;
+	}
+
+	/**
+	 * A type name and the conditions on a single component.
+	 */
+	private static class Compound {
+
+		String typeName;
+		final List<Predicate> predicates = new ArrayList<Predicate>();
+
+		boolean matches(Component component) {
+			if (typeName != null && !hasType(component.getClass(), typeName)) {
+				return false;
+			}
+			for (Predicate predicate : predicates) {
+				if (!predicate.matches(component)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean hasType(Class<?> type, String name) {
+			for (Class<?> current = type; current != null; current = current
+					.getSuperclass()) {
+				if (current.getSimpleName().equals(name)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private abstract static class Predicate {
+
+		abstract boolean matches(Component component);
+	}
+
+	private static class StyleNamePredicate extends Predicate {
+
+		private final String style;
+
+		StyleNamePredicate(String style) {
+			this.style = style;
+		}
+
+		@Override
+		boolean matches(Component component) {
+			String styleName = component.getStyleName();
+			if (styleName == null) {
+				return false;
+			}
+			for (String current : styleName.split(" ")) {
+				if (current.equals(style)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class AttributePredicate extends Predicate {
+
+		private final String attribute;
+		private final String value;
+
+		AttributePredicate(String attribute, String value) {
+			this.attribute = attribute;
+			this.value = value;
+		}
+
+		@Override
+		boolean matches(Component component) {
+			return value.equals(valueOf(component));
+		}
+
+		private String valueOf(Component component) {
+			if ("caption".equals(attribute)) {
+				return component.getCaption();
+			}
+			if ("styleName".equals(attribute)) {
+				return component.getStyleName();
+			}
+			if ("debugId".equals(attribute)) {
+				return component.getDebugId();
+			}
+			if (component instanceof AbstractComponent) {
+				return ((AbstractComponent) component).getDescription();
+			}
+			return null;
+		}
+	}
+
+	private static class StatePredicate extends Predicate {
+
+		private final String state;
+
+		StatePredicate(String state) {
+			this.state = state;
+		}
+
+		@Override
+		boolean matches(Component component) {
+			if ("enabled".equals(state)) {
+				return component.isEnabled();
+			}
+			if ("disabled".equals(state)) {
+				return !component.isEnabled();
+			}
+			if ("visible".equals(state)) {
+				return component.isVisible();
+			}
+			if ("hidden".equals(state)) {
+				return !component.isVisible();
+			}
+			if ("readonly".equals(state)) {
+				return component.isReadOnly();
+			}
+			return component.isImmediate();
+		}
+	}
+
+	private static class Parser {
+
+		private static final List<String> ATTRIBUTES = Arrays
+				.asList("caption", "styleName", "debugId", "description");
+		private static final List<String> STATES = Arrays.asList(
+				"enabled", "disabled", "visible", "hidden", "readonly",
+				"immediate");
+
+		private final String source;
+		private int position;
+
+		Parser(String source) {
+			if (source == null) {
+				throw new IllegalArgumentException(
+						"The selector should not be null");
+			}
+			this.source = source;
+		}
+
+		ComponentSelector parse() {
+			List<Compound> compounds = new ArrayList<Compound>();
+			List<Boolean> childCombinators = new ArrayList<Boolean>();
+			skipWhitespaces();
+			compounds.add(compound());
+			while (position < source.length()) {
+				boolean whitespace = skipWhitespaces();
+				if (position == source.length()) {
+					break;
+				}
+				boolean child = source.charAt(position) == '>';
+				if (child) {
+					position++;
+					skipWhitespaces();
+				} else if (!whitespace) {
+					throw invalid("unexpected character");
+				}
+				childCombinators.add(child);
+				compounds.add(compound());
+			}
+			if (compounds.size() > 64) {
+				throw invalid("too many parts");
+			}
+			return new ComponentSelector(source, compounds, childCombinators);
+		}
+
+		private Compound compound() {
+			Compound compound = new Compound();
+			boolean universal = false;
+			if (position < source.length() && source.charAt(position) == '*') {
+				universal = true;
+				position++;
+			} else if (position < source.length()
+					&& Character.isJavaIdentifierStart(source.charAt(position))) {
+				compound.typeName = identifier();
+			}
+			while (position < source.length()) {
+				char c = source.charAt(position);
+				if (c == '.') {
+					position++;
+					compound.predicates.add(new StyleNamePredicate(name()));
+				} else if (c == '#') {
+					position++;
+					compound.predicates.add(new AttributePredicate("debugId",
+							name()));
+				} else if (c == '[') {
+					position++;
+					compound.predicates.add(attribute());
+				} else if (c == ':') {
+					position++;
+					String state = identifier();
+					if (!STATES.contains(state)) {
+						throw invalid("unknown state " + state);
+					}
+					compound.predicates.add(new StatePredicate(state));
+				} else {
+					break;
+				}
+			}
+			if (!universal && compound.typeName == null
+					&& compound.predicates.isEmpty()) {
+				throw invalid("empty selector");
+			}
+			return compound;
+		}
+
+		private Predicate attribute() {
+			skipWhitespaces();
+			String attribute = identifier();
+			if (!ATTRIBUTES.contains(attribute)) {
+				throw invalid("unknown attribute " + attribute);
+			}
+			skipWhitespaces();
+			expect('=');
+			skipWhitespaces();
+			String value;
+			char quote = position < source.length() ? source.charAt(position)
+					: 0;
+			if (quote == '\'' || quote == '"') {
+				int end = source.indexOf(quote, position + 1);
+				if (end < 0) {
+					throw invalid("unterminated string");
+				}
+				value = source.substring(position + 1, end);
+				position = end + 1;
+			} else {
+				value = name();
+			}
+			skipWhitespaces();
+			expect(']');
+			return new AttributePredicate(attribute, value);
+		}
+
+		private String identifier() {
+			int start = position;
+			while (position < source.length()
+					&& Character.isJavaIdentifierPart(source.charAt(position))) {
+				position++;
+			}
+			if (start == position) {
+				throw invalid("identifier expected");
+			}
+			return source.substring(start, position);
+		}
+
+		private String name() {
+			int start = position;
+			while (position < source.length()
+					&& (Character.isLetterOrDigit(source.charAt(position)) || "-_"
+							.indexOf(source.charAt(position)) >= 0)) {
+				position++;
+			}
+			if (start == position) {
+				throw invalid("name expected");
+			}
+			return source.substring(start, position);
+		}
+
+		private void expect(char expected) {
+			if (position >= source.length()
+					|| source.charAt(position) != expected) {
+				throw invalid("'" + expected + "' expected");
+			}
+			position++;
+		}
+
+		private boolean skipWhitespaces() {
+			int start = position;
+			while (position < source.length()
+					&& Character.isWhitespace(source.charAt(position))) {
+				position++;
+			}
+			return position > start;
+		}
+
+		private IllegalArgumentException invalid(String reason) {
+			return new IllegalArgumentException("Invalid selector <" + source
+					+ ">: " + reason + " at position " + position);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+
+/**
+ * The disabled, read-only, hidden and not immediate descendants of a
+ * {@link ComponentContainer}.
+ * 
+ * <p>
+ * The four states are read together in a single {@link ComponentWalk} of the
+ * tree. Each offending descendant is recorded with its path from the root,
+ * for example {@code VerticalLayout/HorizontalLayout[2]/Button[1]}, in a
+ * {@link FailureReport} per state. The path is only built for the offending
+ * descendants the report keeps, the others are only counted.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+class ComponentStates {
+
+	private static final String DISABLED = "disabled descendants";
+	private static final String READ_ONLY = "read-only descendants";
+	private static final String HIDDEN = "hidden descendants";
+	private static final String NOT_IMMEDIATE = "not immediate descendants";
+
+	private final FailureReport disabled = new FailureReport()
+			.category(DISABLED);
+	private final FailureReport readOnly = new FailureReport()
+			.category(READ_ONLY);
+	private final FailureReport hidden = new FailureReport().category(HIDDEN);
+	private final FailureReport notImmediate = new FailureReport()
+			.category(NOT_IMMEDIATE);
+
+	private ComponentStates() {
+	}
+
+	/**
+	 * @param root
+	 *            the {@link ComponentContainer} whose descendants are read (the
+	 *            root itself is not).
+	 * @return the states of the descendants of the given root.
+	 */
+	static ComponentStates of(ComponentContainer root) {
+		ComponentStates states = new ComponentStates();
+		for (ComponentWalk walk = new ComponentWalk(root); walk.next();) {
+			Component component = walk.component();
+			boolean isDisabled = !component.isEnabled();
+			boolean isReadOnly = component.isReadOnly();
+			boolean isHidden = !component.isVisible();
+			boolean isNotImmediate = !component.isImmediate();
+			String path = isDisabled && states.disabled.keepsNext()
+					|| isReadOnly && states.readOnly.keepsNext()
+					|| isHidden && states.hidden.keepsNext()
+					|| isNotImmediate && states.notImmediate.keepsNext() ? walk
+					.path() : null;
+			if (isDisabled) {
+				states.disabled.add(DISABLED, path);
+			}
+			if (isReadOnly) {
+				states.readOnly.add(READ_ONLY, path);
+			}
+			if (isHidden) {
+				states.hidden.add(HIDDEN, path);
+			}
+			if (isNotImmediate) {
+				states.notImmediate.add(NOT_IMMEDIATE, path);
+			}
+		}
+		return states;
+	}
+
+	/**
+	 * @return the descendants that are not enabled.
+	 */
+	FailureReport disabled() {
+		return disabled;
+	}
+
+	/**
+	 * @return the descendants that are read-only.
+	 */
+	FailureReport readOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * @return the descendants that are not visible.
+	 */
+	FailureReport hidden() {
+		return hidden;
+	}
+
+	/**
+	 * @return the descendants that are not immediate.
+	 */
+	FailureReport notImmediate() {
+		return notImmediate;
+	}
+}
@@ -0,0 +1,124 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+
+/**
+ * Lookup indexes over the descendants of a {@link ComponentContainer}, by
+ * type, caption, style name and debug id.
+ * 
+ * <p>
+ * The tree is walked once, with a {@link ComponentWalk}, when the index is
+ * built.
+ * Every list of the index keeps the components in the order of the walk. The
+ * index is not updated if the tree changes afterwards.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+class ComponentTreeIndex {
+
+	private final List<Component> components = new ArrayList<Component>();
+	private final Map<Class<?>, List<Component>> byType = new LinkedHashMap<Class<?>, List<Component>>();
+	private final Map<String, List<Component>> byCaption = new HashMap<String, List<Component>>();
+	private final Map<String, List<Component>> byStyleName = new HashMap<String, List<Component>>();
+	private final Map<String, List<Component>> byDebugId = new HashMap<String, List<Component>>();
+
+	private ComponentTreeIndex() {
+	}
+
+	/**
+	 * @param root
+	 *            the {@link ComponentContainer} whose descendants are indexed
+	 *            (the root itself is not).
+	 * @return the index of the descendants of the given root.
+	 */
+	static ComponentTreeIndex of(ComponentContainer root) {
+		ComponentTreeIndex index = new ComponentTreeIndex();
+		for (ComponentWalk walk = new ComponentWalk(root); walk.next();) {
+			index.add(walk.component());
+		}
+		return index;
+	}
+
+	private void add(Component component) {
+		components.add(component);
+		put(byType, component.getClass(), component);
+		if (component.getCaption() != null) {
+			put(byCaption, component.getCaption(), component);
+		}
+		if (component.getDebugId() != null) {
+			put(byDebugId, component.getDebugId(), component);
+		}
+		String styleName = component.getStyleName();
+		if (styleName != null) {
+			for (String style : styleName.split(" ")) {
+				if (style.length() > 0) {
+					put(byStyleName, style, component);
+				}
+			}
+		}
+	}
+
+	private static <K> void put(Map<K, List<Component>> index, K key,
+			Component component) {
+		List<Component> components = index.get(key);
+		if (components == null) {
+			components = new ArrayList<Component>(1);
+			index.put(key, components);
+		}
+		if (components.isEmpty()
+				|| components.get(components.size() - 1) != component) {
+			components.add(component);
+		}
+	}
+
+	/**
+	 * @return every indexed component, in the order of the walk.
+	 */
+	List<Component> all() {
+		return Collections.unmodifiableList(components);
+	}
+
+	/**
+	 * @param type
+	 *            the type to look for.
+	 * @return the components that are instances of the given type, grouped by
+	 *         concrete class.
+	 */
+	List<Component> byType(Class<?> type) {
+		List<Component> found = new ArrayList<Component>();
+		for (Map.Entry<Class<?>, List<Component>> entry : byType.entrySet()) {
+			if (type.isAssignableFrom(entry.getKey())) {
+				found.addAll(entry.getValue());
+			}
+		}
+		return found;
+	}
+
+	List<Component> byCaption(String caption) {
+		return get(byCaption, caption);
+	}
+
+	List<Component> byStyleName(String styleName) {
+		return get(byStyleName, styleName);
+	}
+
+	List<Component> byDebugId(String debugId) {
+		return get(byDebugId, debugId);
+	}
+
+	private static List<Component> get(Map<String, List<Component>> index,
+			String key) {
+		List<Component> components = index.get(key);
+		return components == null ? Collections.<Component> emptyList()
+				: Collections.unmodifiableList(components);
+	}
+}
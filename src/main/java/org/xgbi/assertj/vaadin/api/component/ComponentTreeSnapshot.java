@@ -0,0 +1,380 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.terminal.ExternalResource;
+import com.vaadin.terminal.Resource;
+import com.vaadin.terminal.ThemeResource;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+
+/**
+ * Text snapshot of a component tree: one line per component, indented by two
+ * spaces per level, with the simple name of its class and the state read by
+ * {@link ComponentAssert}, for example
+ *
+ * <pre>
+ * # component tree v1
+ * VerticalLayout {caption=null, styleName='', enabled, visible, readOnly=false, immediate=false, icon=null}
+ *   Button {caption='Save', styleName='primary', enabled, visible, readOnly=false, immediate=false, icon=theme:save.png}
+ * </pre>
+ *
+ * <p>
+ * Every node carries a 64-bit FNV-1a hash of its line and of the hashes of its
+ * children. Two trees are compared from the root and the subtrees with the
+ * same hash, the same root line and the same number of children are skipped,
+ * so the comparison work is proportional to the changed subtrees rather than
+ * to the size of the tree. The lines below the root of a skipped subtree are
+ * trusted to the hash: two different subtrees would only be taken as equal if
+ * their 64-bit hashes collide. Unlike the 32-bit {@code hashCode()} of cell
+ * values (see {@code ContainerDiff}), which collide for values as simple as
+ * {@code "Aa"} and {@code "BB"}, such a collision is not expected on real
+ * component trees, and checking every line would make the comparison
+ * proportional to the size of the tree again.
+ *
+ * <p>
+ * The trees are read, written and compared iteratively, so they may be of
+ * any depth.
+ *
+ * @author Vincent Demeester
+ *
+ */
+class ComponentTreeSnapshot {
+
+	private static final String HEADER = "# component tree v1";
+	private static final String INDENT = "  ";
+	private static final String DIFFERENCES = "differences";
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	final String line;
+	final List<ComponentTreeSnapshot> children = new ArrayList<ComponentTreeSnapshot>();
+	private long hash;
+
+	private ComponentTreeSnapshot(String line) {
+		this.line = line;
+	}
+
+	/**
+	 * @param root
+	 *            the root of the tree to read.
+	 * @return the snapshot of the given component and of its descendants.
+	 */
+	static ComponentTreeSnapshot of(ComponentContainer root) {
+		ComponentTreeSnapshot snapshot = new ComponentTreeSnapshot(
+				describe(root));
+		// the snapshots of the current component and of its ancestors, by depth
+		List<ComponentTreeSnapshot> parents = new ArrayList<ComponentTreeSnapshot>();
+		parents.add(snapshot);
+		for (ComponentWalk walk = new ComponentWalk(root); walk.next();) {
+			while (parents.size() > walk.depth()) {
+				parents.remove(parents.size() - 1).computeHash();
+			}
+			ComponentTreeSnapshot node = new ComponentTreeSnapshot(
+					describe(walk.component()));
+			parents.get(parents.size() - 1).children.add(node);
+			parents.add(node);
+		}
+		while (!parents.isEmpty()) {
+			parents.remove(parents.size() - 1).computeHash();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @param file
+	 *            a file written by {@link #write(File)}.
+	 * @return the snapshot read from the given file.
+	 * @throws IOException
+	 *             if the file can not be read or is not a tree snapshot.
+	 */
+	static ComponentTreeSnapshot read(File file) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), "UTF-8"));
+		try {
+			LinkedList<ComponentTreeSnapshot> parents = new LinkedList<ComponentTreeSnapshot>();
+			ComponentTreeSnapshot root = null;
+			int number = 0;
+			for (String line = reader.readLine(); line != null; line = reader
+					.readLine()) {
+				number++;
+				if (line.length() == 0 || line.startsWith("#")) {
+					continue;
+				}
+				int depth = 0;
+				while (line.startsWith(INDENT, depth * INDENT.length())) {
+					depth++;
+				}
+				if (root == null ? depth != 0 : depth == 0
+						|| depth > parents.size()) {
+					throw new IOException("Invalid indentation at line "
+							+ number + " of " + file);
+				}
+				ComponentTreeSnapshot node = new ComponentTreeSnapshot(
+						line.substring(depth * INDENT.length()));
+				while (parents.size() > depth) {
+					parents.pop().computeHash();
+				}
+				if (root == null) {
+					root = node;
+				} else {
+					parents.peek().children.add(node);
+				}
+				parents.push(node);
+			}
+			if (root == null) {
+				throw new IOException(file + " is not a component tree snapshot");
+			}
+			while (!parents.isEmpty()) {
+				parents.pop().computeHash();
+			}
+			return root;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given file.
+	 *
+	 * @param file
+	 *            the file to (over)write; its parent directories are created
+	 *            if needed.
+	 * @throws IOException
+	 *             if the file can not be written.
+	 */
+	void write(File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Could not create the directory " + parent);
+		}
+		Writer writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file), "UTF-8"));
+		try {
+			writer.write(HEADER);
+			writer.write('\n');
+			LinkedList<ComponentTreeSnapshot> nodes = new LinkedList<ComponentTreeSnapshot>();
+			LinkedList<Integer> depths = new LinkedList<Integer>();
+			nodes.push(this);
+			depths.push(0);
+			while (!nodes.isEmpty()) {
+				ComponentTreeSnapshot node = nodes.pop();
+				int depth = depths.pop();
+				for (int i = 0; i < depth; i++) {
+					writer.write(INDENT);
+				}
+				writer.write(node.line);
+				writer.write('\n');
+				for (int i = node.children.size() - 1; i >= 0; i--) {
+					nodes.push(node.children.get(i));
+					depths.push(depth + 1);
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @param actual
+	 *            the snapshot of the actual tree.
+	 * @return the differences between this (expected) snapshot and the given
+	 *         one.
+	 */
+	FailureReport diff(ComponentTreeSnapshot actual) {
+		FailureReport differences = new FailureReport().category(DIFFERENCES);
+		LinkedList<Comparison> comparisons = new LinkedList<Comparison>();
+		if (!sameSubtree(this, actual)) {
+			comparisons.push(new Comparison(this, actual, typeName(line),
+					differences));
+		}
+		while (!comparisons.isEmpty()) {
+			Comparison child = comparisons.peek().next(differences);
+			if (child == null) {
+				comparisons.pop();
+			} else {
+				comparisons.push(child);
+			}
+		}
+		return differences;
+	}
+
+	/**
+	 * The comparison of two different subtrees, that goes on child after
+	 * child.
+	 */
+	private static class Comparison {
+
+		private final List<ComponentTreeSnapshot> expectedChildren;
+		private final List<ComponentTreeSnapshot> actualChildren;
+		private final String path;
+		private int e;
+		private int a;
+
+		Comparison(ComponentTreeSnapshot expected,
+				ComponentTreeSnapshot actual, String path,
+				FailureReport differences) {
+			this.expectedChildren = expected.children;
+			this.actualChildren = actual.children;
+			this.path = path;
+			if (!expected.line.equals(actual.line)) {
+				differences.add(DIFFERENCES, "%s: expected <%s> but was <%s>",
+						path, expected.line, actual.line);
+			}
+		}
+
+		/**
+		 * Report the differences of the next children, up to the next pair of
+		 * different subtrees.
+		 *
+		 * @return the comparison of the next pair of different subtrees, or
+		 *         {@code null} if every child has been compared.
+		 */
+		Comparison next(FailureReport differences) {
+			while (e < expectedChildren.size() || a < actualChildren.size()) {
+				if (e == expectedChildren.size()) {
+					unexpected(differences);
+				} else if (a == actualChildren.size()) {
+					missing(differences);
+				} else if (sameSubtree(expectedChildren.get(e),
+						actualChildren.get(a))) {
+					e++;
+					a++;
+				} else if (indexOf(actualChildren, a + 1,
+						expectedChildren.get(e)) >= 0) {
+					unexpected(differences);
+				} else if (indexOf(expectedChildren, e + 1,
+						actualChildren.get(a)) >= 0) {
+					missing(differences);
+				} else {
+					Comparison child = new Comparison(expectedChildren.get(e),
+							actualChildren.get(a), childPath(path,
+									actualChildren.get(a), a), differences);
+					e++;
+					a++;
+					return child;
+				}
+			}
+			return null;
+		}
+
+		private void unexpected(FailureReport differences) {
+			differences.add(DIFFERENCES, "%s: unexpected <%s>",
+					childPath(path, actualChildren.get(a), a),
+					actualChildren.get(a).line);
+			a++;
+		}
+
+		private void missing(FailureReport differences) {
+			differences.add(DIFFERENCES, "%s: missing <%s>",
+					childPath(path, expectedChildren.get(e), e),
+					expectedChildren.get(e).line);
+			e++;
+		}
+	}
+
+	/**
+	 * @return {@code true} if both subtrees have the same hash, root line and
+	 *         number of children, see the class comment.
+	 */
+	private static boolean sameSubtree(ComponentTreeSnapshot expected,
+			ComponentTreeSnapshot actual) {
+		return expected.hash == actual.hash
+				&& expected.children.size() == actual.children.size()
+				&& expected.line.equals(actual.line);
+	}
+
+	private static int indexOf(List<ComponentTreeSnapshot> nodes, int from,
+			ComponentTreeSnapshot node) {
+		for (int i = from; i < nodes.size(); i++) {
+			if (sameSubtree(nodes.get(i), node)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String childPath(String path, ComponentTreeSnapshot child,
+			int index) {
+		return path + "/" + typeName(child.line) + "[" + index + "]";
+	}
+
+	private static String typeName(String line) {
+		int space = line.indexOf(' ');
+		return space < 0 ? line : line.substring(0, space);
+	}
+
+	private void computeHash() {
+		long h = FNV_OFFSET;
+		for (int i = 0; i < line.length(); i++) {
+			h = (h ^ line.charAt(i)) * FNV_PRIME;
+		}
+		for (ComponentTreeSnapshot child : children) {
+			h = (h ^ child.hash) * FNV_PRIME;
+			h ^= h >>> 29;
+		}
+		hash = h;
+	}
+
+	private static String describe(Component component) {
+		StringBuilder line = new StringBuilder(component.getClass()
+				.getSimpleName());
+		line.append(" {caption=");
+		appendQuoted(line, component.getCaption());
+		line.append(", styleName=");
+		appendQuoted(line, component.getStyleName());
+		line.append(component.isEnabled() ? ", enabled" : ", disabled");
+		line.append(component.isVisible() ? ", visible" : ", hidden");
+		line.append(", readOnly=").append(component.isReadOnly());
+		line.append(", immediate=").append(component.isImmediate());
+		line.append(", icon=").append(describe(component.getIcon()));
+		return line.append('}').toString();
+	}
+
+	private static String describe(Resource icon) {
+		if (icon == null) {
+			return "null";
+		}
+		if (icon instanceof ThemeResource) {
+			return "theme:" + ((ThemeResource) icon).getResourceId();
+		}
+		if (icon instanceof ExternalResource) {
+			return "external:" + ((ExternalResource) icon).getURL();
+		}
+		return icon.getClass().getSimpleName();
+	}
+
+	private static void appendQuoted(StringBuilder line, String value) {
+		if (value == null) {
+			line.append("null");
+			return;
+		}
+		line.append('\'');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\'' || c == '\\') {
+				line.append('\\').append(c);
+			} else if (c == '\n') {
+				line.append("\\n");
+			} else if (c == '\r') {
+				line.append("\\r");
+			} else {
+				line.append(c);
+			}
+		}
+		line.append('\'');
+	}
+}
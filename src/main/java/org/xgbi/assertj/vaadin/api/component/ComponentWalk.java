@@ -0,0 +1,128 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.vaadin.ui.Component;
+import com.vaadin.ui.ComponentContainer;
+
+/**
+ * Depth-first, pre-order walk of the descendants of a
+ * {@link ComponentContainer} (the root itself is not visited), with an
+ * explicit stack of {@link ComponentContainer#getComponentIterator()} so that
+ * deep trees can not overflow the call stack.
+ *
+ * <pre>
+ * for (ComponentWalk walk = new ComponentWalk(root); walk.next();) {
+ * 	Component component = walk.component();
+ * 	...
+ * }
+ * </pre>
+ *
+ * <p>
+ * Along with the current component, the walk knows its depth, its index in
+ * its parent and its path from the root, made of the simple class names of
+ * the components and of their index in their parent, for example
+ * {@code VerticalLayout/HorizontalLayout[2]/Button[1]}. The path is only built
+ * when it is asked for.
+ *
+ * @author Vincent Demeester
+ *
+ */
+class ComponentWalk {
+
+	private final List<Frame> stack = new ArrayList<Frame>();
+	private Component component;
+	private int index;
+
+	/**
+	 * @param root
+	 *            the {@link ComponentContainer} whose descendants are walked.
+	 */
+	ComponentWalk(ComponentContainer root) {
+		stack.add(new Frame(root, -1));
+	}
+
+	/**
+	 * Move to the next descendant: the first child of the current component
+	 * if it has one, else its next sibling or the next sibling of its closest
+	 * ancestor that has one.
+	 *
+	 * @return {@code false} if every descendant has been walked.
+	 */
+	boolean next() {
+		if (component instanceof ComponentContainer) {
+			stack.add(new Frame((ComponentContainer) component, index));
+		}
+		while (!stack.isEmpty()) {
+			Frame parent = stack.get(stack.size() - 1);
+			if (parent.children.hasNext()) {
+				component = parent.children.next();
+				index = parent.nextIndex++;
+				return true;
+			}
+			stack.remove(stack.size() - 1);
+		}
+		component = null;
+		return false;
+	}
+
+	/**
+	 * @return the current component.
+	 */
+	Component component() {
+		return component;
+	}
+
+	/**
+	 * @return the depth of the current component, 1 for a child of the root.
+	 */
+	int depth() {
+		return stack.size();
+	}
+
+	/**
+	 * @return the index of the current component in its parent.
+	 */
+	int index() {
+		return index;
+	}
+
+	/**
+	 * @return the path of the current component from the root.
+	 */
+	String path() {
+		StringBuilder path = new StringBuilder(stack.get(0).container
+				.getClass().getSimpleName());
+		for (int i = 1; i < stack.size(); i++) {
+			Frame frame = stack.get(i);
+			appendSegment(path, frame.container, frame.index);
+		}
+		appendSegment(path, component, index);
+		return path.toString();
+	}
+
+	private static void appendSegment(StringBuilder path, Component component,
+			int index) {
+		path.append('/').append(component.getClass().getSimpleName())
+				.append('[').append(index).append(']');
+	}
+
+	/**
+	 * A container being walked and its index in its parent.
+	 */
+	private static class Frame {
+
+		final ComponentContainer container;
+		final int index;
+		final Iterator<Component> children;
+		int nextIndex;
+
+		Frame(ComponentContainer container, int index) {
+			this.container = container;
+			this.index = index;
+			this.children = container.getComponentIterator();
+		}
+	}
+}
@@ -1,7 +1,15 @@
 package org.xgbi.assertj.vaadin.api.component;
 
-import java.util.Collection;
+import static org.assertj.core.groups.Tuple.tuple;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.assertj.core.groups.Tuple;
+
+import com.vaadin.ui.Component;
 import com.vaadin.ui.Component.Listener;
 import com.vaadin.ui.TabSheet;
 import com.vaadin.ui.TabSheet.Tab;
@@ -9,6 +17,11 @@ import com.vaadin.ui.TabSheet.Tab;
 /**
  * Assertions for Vaadin {@link TabSheet}.
  * 
+ * <p>
+ * {@link #hasTabs(Tuple...)} reads the caption and the enabled, visible and
+ * closable states of every {@link Tab} in a single pass over the components
+ * of the {@link TabSheet}, then compares all of them with the expected rows.
+ * 
  * @author Vincent Demeester
  * 
  */
@@ -37,14 +50,9 @@ public class TabSheetAssert extends ComponentContainerAssert {
 	 *             if the actual {@link TabSheet} has no {@link Listener} for
 	 *             the given type.
 	 */
+	@Override
 	public TabSheetAssert hasListener(Class<?> eventType) {
-		isNotNull();
-		Collection<?> listeners = getActual().getListeners(eventType);
-		if (listeners.isEmpty()) {
-			failWithMessage(
-					"Expected at least 1 listener of event type : <%s>",
-					eventType);
-		}
+		super.hasListener(eventType);
 		return this;
 	}
 
@@ -59,7 +67,12 @@ public class TabSheetAssert extends ComponentContainerAssert {
 	 *             if the actual {@link TabSheet} has tabs.
 	 */
 	public TabSheetAssert hasNoTab() {
-		return hasTabCount(0);
+		started("hasNoTab");
+		try {
+			return finished(hasTabCount(0));
+		} finally {
+			ended();
+		}
 	}
 
 	/**
@@ -76,13 +89,125 @@ public class TabSheetAssert extends ComponentContainerAssert {
 	 *             from the given one.
 	 */
 	public TabSheetAssert hasTabCount(int count) {
-		isNotNull();
-		int numberOfTabs = getActual().getComponentCount();
-		if (numberOfTabs != count) {
-			failWithMessage(
-					"Expected to have <%s> tabs, but <%s> were present.",
-					count, numberOfTabs);
+		started("hasTabCount");
+		try {
+			isNotNull();
+			int numberOfTabs = getActual().getComponentCount();
+			if (numberOfTabs != count) {
+				failWithMessage(
+						"Expected to have <%s> tabs, but <%s> were present.",
+						count, numberOfTabs);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
+	}
+
+	/**
+	 * Assert that the {@link TabSheet} has exactly the given tabs, in order,
+	 * each one given as a {@code tuple(caption, enabled, visible, closable)}.
+	 * 
+	 * <pre>
+	 * assertThat(tabSheet).hasTabs(tuple(&quot;Orders&quot;, true, true, false),
+	 * 		tuple(&quot;Archive&quot;, false, true, true));
+	 * </pre>
+	 * 
+	 * @param tabs
+	 *            the expected tabs.
+	 * @return this {@link TabSheetAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given tabs are {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link TabSheet} is {@code null}
+	 * @throws AssertionError
+	 *             if the tabs of the actual {@link TabSheet} are not the given
+	 *             ones.
+	 */
+	public TabSheetAssert hasTabs(Tuple... tabs) {
+		started("hasTabs");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(tabs == null,
+					"The tabs to look for should not be null");
+			List<Tuple> actualTabs = tabs();
+			List<String> differences = new ArrayList<String>();
+			for (int i = 0; i < Math.max(tabs.length, actualTabs.size()); i++) {
+				if (i >= actualTabs.size()) {
+					differences.add("tab " + i + ": missing " + tabs[i]);
+				} else if (i >= tabs.length) {
+					differences.add("tab " + i + ": unexpected "
+							+ actualTabs.get(i));
+				} else if (!actualTabs.get(i).equals(tabs[i])) {
+					differences.add("tab " + i + ": expected " + tabs[i]
+							+ " but was " + actualTabs.get(i));
+				}
+			}
+			if (!differences.isEmpty()) {
+				failWithMessage(
+						"Expected to have the tabs (caption, enabled, visible, closable) %s, but <%s> differed: %s.",
+						Arrays.asList(tabs), differences.size(),
+						differences);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the selected {@link Tab} of the {@link TabSheet} has the
+	 * given caption.
+	 * 
+	 * @param caption
+	 *            the caption of the tab that should be selected.
+	 * @return this {@link TabSheetAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given caption is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link TabSheet} is {@code null}
+	 * @throws AssertionError
+	 *             if no tab is selected or if the selected tab has another
+	 *             caption.
+	 */
+	public TabSheetAssert hasSelectedTab(String caption) {
+		started("hasSelectedTab");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(caption == null,
+					"The caption to look for should not be null");
+			Component selected = getActual().getSelectedTab();
+			Tab tab = selected == null ? null : getActual().getTab(selected);
+			if (tab == null) {
+				failWithMessage(
+						"Expected the tab %s to be selected, but no tab was.",
+						caption);
+			} else if (!caption.equals(tab.getCaption())) {
+				failWithMessage(
+						"Expected the tab %s to be selected, but the tab %s was.",
+						caption, tab.getCaption());
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * @return the caption, enabled, visible and closable states of every tab,
+	 *         in order.
+	 */
+	private List<Tuple> tabs() {
+		TabSheet tabSheet = getActual();
+		List<Tuple> tabs = new ArrayList<Tuple>(tabSheet.getComponentCount());
+		for (Iterator<Component> components = tabSheet.getComponentIterator(); components
+				.hasNext();) {
+			Tab tab = tabSheet.getTab(components.next());
+			tabs.add(tuple(tab.getCaption(), tab.isEnabled(), tab.isVisible(),
+					tab.isClosable()));
+		}
+		return tabs;
 	}
 }
@@ -0,0 +1,178 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.TypeVariable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * Reader of a (possibly nested) bean property, like
+ * {@code customer.address.city}.
+ *
+ * <p>
+ * The path is resolved once per bean class with commons-beanutils into the
+ * chain of the read methods of its properties, and kept in a {@link Cache}.
+ * Reading the property of a bean then only invokes these methods, without
+ * looking up the property descriptors again. A {@code null} intermediate value
+ * gives a {@code null} property. The cache lives as long as the extraction
+ * that uses it, so the bean classes (and their class loaders) are not held
+ * once the assertion is done.
+ *
+ * <p>
+ * When the previous property is read by a generic getter like
+ * {@code T getValue()} (or one returning {@link Object}), a property that its
+ * declared type does not have is looked up on the runtime class of the value,
+ * the rest of the path being resolved and cached for that class.
+ *
+ * @author Vincent Demeester
+ *
+ */
+final class BeanPropertyAccessor {
+
+	private final Cache cache;
+	private final String path;
+	private final Method[] readMethods;
+	/**
+	 * The index in the path of the first property to resolve on the runtime
+	 * class of the value read by {@link #readMethods}, or -1.
+	 */
+	private final int runtimeFrom;
+
+	private BeanPropertyAccessor(Cache cache, String path,
+			Method[] readMethods, int runtimeFrom) {
+		this.cache = cache;
+		this.path = path;
+		this.readMethods = readMethods;
+		this.runtimeFrom = runtimeFrom;
+	}
+
+	/**
+	 * The accessors resolved for one extraction, by bean class and path.
+	 */
+	static final class Cache {
+
+		private final Map<Key, BeanPropertyAccessor> accessors = new HashMap<Key, BeanPropertyAccessor>();
+
+		/**
+		 * @param beanClass
+		 *            the class of the beans to read.
+		 * @param path
+		 *            the names of the properties, separated by dots.
+		 * @return the (cached) accessor of the given property of the given
+		 *         class.
+		 *
+		 * @throws IllegalArgumentException
+		 *             if one of the properties of the path has no read method.
+		 */
+		BeanPropertyAccessor get(Class<?> beanClass, String path) {
+			return get(beanClass, path, 0);
+		}
+
+		private BeanPropertyAccessor get(Class<?> beanClass, String path,
+				int from) {
+			Key key = new Key(beanClass, path, from);
+			BeanPropertyAccessor accessor = accessors.get(key);
+			if (accessor == null) {
+				accessor = resolve(this, beanClass, path, from);
+				accessors.put(key, accessor);
+			}
+			return accessor;
+		}
+	}
+
+	private static BeanPropertyAccessor resolve(Cache cache,
+			Class<?> beanClass, String path, int from) {
+		String[] names = path.split("\\.", -1);
+		Method[] readMethods = new Method[names.length - from];
+		Class<?> type = beanClass;
+		boolean generic = false;
+		for (int i = from; i < names.length; i++) {
+			Method readMethod = readMethod(type, names[i]);
+			if (readMethod == null && generic) {
+				Method[] declared = new Method[i - from];
+				System.arraycopy(readMethods, 0, declared, 0, declared.length);
+				return new BeanPropertyAccessor(cache, path, declared, i);
+			}
+			if (readMethod == null) {
+				throw new IllegalArgumentException("The property <" + path
+						+ "> of " + beanClass.getName() + " has no readable <"
+						+ names[i] + "> in " + type.getName());
+			}
+			readMethods[i - from] = readMethod;
+			type = readMethod.getReturnType();
+			generic = type == Object.class
+					|| readMethod.getGenericReturnType() instanceof TypeVariable;
+		}
+		return new BeanPropertyAccessor(cache, path, readMethods, -1);
+	}
+
+	private static Method readMethod(Class<?> type, String name) {
+		for (PropertyDescriptor descriptor : PropertyUtils
+				.getPropertyDescriptors(type)) {
+			if (descriptor.getName().equals(name)) {
+				return PropertyUtils.getReadMethod(descriptor);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param bean
+	 *            a bean of the class this accessor has been resolved for.
+	 * @return the value of the property of the given bean.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the runtime class of an intermediate value has no such
+	 *             property.
+	 */
+	Object read(Object bean) {
+		Object value = bean;
+		for (int i = 0; i < readMethods.length && value != null; i++) {
+			try {
+				value = readMethods[i].invoke(value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Could not read the property <"
+						+ path + "> of " + bean, e);
+			} catch (InvocationTargetException e) {
+				throw new IllegalStateException("Could not read the property <"
+						+ path + "> of " + bean, e.getCause());
+			}
+		}
+		if (runtimeFrom >= 0 && value != null) {
+			return cache.get(value.getClass(), path, runtimeFrom).read(value);
+		}
+		return value;
+	}
+
+	private static final class Key {
+
+		private final Class<?> beanClass;
+		private final String path;
+		private final int from;
+
+		Key(Class<?> beanClass, String path, int from) {
+			this.beanClass = beanClass;
+			this.path = path;
+			this.from = from;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return beanClass == key.beanClass && path.equals(key.path)
+					&& from == key.from;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * beanClass.hashCode() + path.hashCode()) + from;
+		}
+	}
+}
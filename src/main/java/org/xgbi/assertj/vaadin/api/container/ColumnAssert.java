@@ -0,0 +1,235 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import org.xgbi.assertj.vaadin.api.AbstractAssert;
+
+import com.vaadin.data.Container;
+
+/**
+ * Assertions on the values of a property (a column) of a Vaadin
+ * {@link Container}.
+ * 
+ * <p>
+ * The first assertion computes every aggregate of the column in a single pass
+ * over the items (see {@link ColumnStatistics}), the following assertions of
+ * the chain reuse them. The distinct values are only collected for
+ * {@link #hasDistinctCount(int)}: put it first in a chain to keep to one pass.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public class ColumnAssert extends AbstractAssert<ColumnAssert, Container> {
+
+	private final Object propertyId;
+	private final int pageSize;
+	private ColumnStatistics statistics;
+
+	ColumnAssert(Container actual, Object propertyId, int pageSize) {
+		super(actual, ColumnAssert.class);
+		this.propertyId = propertyId;
+		this.pageSize = pageSize;
+	}
+
+	private ColumnStatistics statistics() {
+		if (statistics == null) {
+			statistics = ColumnStatistics.compute(counted(), propertyId,
+					pageSize, false);
+		}
+		return statistics;
+	}
+
+	private ColumnStatistics distinctStatistics() {
+		if (statistics == null || !statistics.countsDistinct()) {
+			statistics = ColumnStatistics.compute(counted(), propertyId,
+					pageSize, true);
+		}
+		return statistics;
+	}
+
+	private ColumnStatistics numericStatistics() {
+		ColumnStatistics numeric = statistics();
+		throwIllegalArgumentExceptionIfTrue(!numeric.isNumeric(),
+				"The property " + propertyId + " is not numeric");
+		return numeric;
+	}
+
+	/**
+	 * Assert that the sum of the non-null values of the column is the given
+	 * one.
+	 * 
+	 * @param sum
+	 *            the expected sum.
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given sum is {@code null}.
+	 * @throws IllegalArgumentException
+	 *             if the column is not numeric.
+	 * @throws AssertionError
+	 *             if the sum of the column is not the given one.
+	 */
+	public ColumnAssert hasSum(Number sum) {
+		started("hasSum");
+		try {
+			throwIllegalArgumentExceptionIfTrue(sum == null,
+					"The sum to look for should not be null");
+			Number actualSum = numericStatistics().sum();
+			if (!statistics().sameValue(sum, actualSum)) {
+				failWithMessage(
+						"Expected property [%s] to have a sum of [%s], but was [%s]",
+						propertyId, sum, actualSum);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the average of the non-null values of the column is the
+	 * given one, within the given offset.
+	 * 
+	 * @param average
+	 *            the expected average.
+	 * @param offset
+	 *            the tolerated difference with the expected average.
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the column is not numeric.
+	 * @throws AssertionError
+	 *             if the column has no non-null values or if its average is
+	 *             not the given one.
+	 */
+	public ColumnAssert hasAverage(double average, double offset) {
+		started("hasAverage");
+		try {
+			double actualAverage = numericStatistics().average();
+			if (Double.isNaN(actualAverage)
+					|| Math.abs(actualAverage - average) > offset) {
+				failWithMessage(
+						"Expected property [%s] to have an average of [%s] (+/- %s), but was [%s]",
+						propertyId, average, offset, actualAverage);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the smallest non-null value of the column is the given one.
+	 * 
+	 * @param min
+	 *            the expected smallest value.
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the smallest value of the column is not the given one.
+	 */
+	public ColumnAssert hasMin(Object min) {
+		started("hasMin");
+		try {
+			Object actualMin = statistics().min();
+			if (!statistics().sameValue(min, actualMin)) {
+				failWithMessage(
+						"Expected property [%s] to have a min of [%s], but was [%s]",
+						propertyId, min, actualMin);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the biggest non-null value of the column is the given one.
+	 * 
+	 * @param max
+	 *            the expected biggest value.
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the biggest value of the column is not the given one.
+	 */
+	public ColumnAssert hasMax(Object max) {
+		started("hasMax");
+		try {
+			Object actualMax = statistics().max();
+			if (!statistics().sameValue(max, actualMax)) {
+				failWithMessage(
+						"Expected property [%s] to have a max of [%s], but was [%s]",
+						propertyId, max, actualMax);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the column has the given number of distinct non-null values.
+	 * 
+	 * @param count
+	 *            the expected number of distinct values.
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the column has another number of distinct values.
+	 */
+	public ColumnAssert hasDistinctCount(int count) {
+		started("hasDistinctCount");
+		try {
+			int actualCount = distinctStatistics().distinctCount();
+			if (actualCount != count) {
+				failWithMessage(
+						"Expected property [%s] to have [%s] distinct values, but had [%s]",
+						propertyId, count, actualCount);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the column has the given number of {@code null} values.
+	 * 
+	 * @param count
+	 *            the expected number of {@code null} values.
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the column has another number of {@code null} values.
+	 */
+	public ColumnAssert hasNullCount(int count) {
+		started("hasNullCount");
+		try {
+			int actualCount = statistics().nullCount;
+			if (actualCount != count) {
+				failWithMessage(
+						"Expected property [%s] to have [%s] null values, but had [%s]",
+						propertyId, count, actualCount);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the column has no {@code null} values.
+	 * 
+	 * @return this {@link ColumnAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the column has {@code null} values.
+	 */
+	public ColumnAssert hasNoNulls() {
+		started("hasNoNulls");
+		try {
+			return finished(hasNullCount(0));
+		} finally {
+			ended();
+		}
+	}
+}
@@ -0,0 +1,379 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import com.vaadin.data.Container;
+
+/**
+ * Aggregates of a property of a {@link Container} (min, max, sum, average,
+ * distinct and null count), all computed in a single pass over the items. The
+ * distinct values are only collected if they are asked for, as they are the
+ * only aggregate that takes memory in proportion to the column.
+ *
+ * <p>
+ * Integral properties ({@link Byte}, {@link Short}, {@link Integer},
+ * {@link Long}) are accumulated in {@code long} (the sum going on in a
+ * {@link BigInteger} if it overflows), floating point properties (
+ * {@link Float}, {@link Double}) in {@code double}, and their distinct values
+ * are counted in an open-addressing set of {@code long}. The values of other
+ * properties are kept as objects, only their min and max are computed (if they
+ * are {@link Comparable}). A {@link ContainerSnapshot} column is read directly
+ * from its primitive array.
+ *
+ * @author Vincent Demeester
+ *
+ */
+class ColumnStatistics {
+
+	enum Kind {
+		INTEGRAL, FLOATING, OBJECT
+	}
+
+	final Kind kind;
+	int count;
+	int nullCount;
+	long longMin = Long.MAX_VALUE;
+	long longMax = Long.MIN_VALUE;
+	long longSum;
+	/** The part of the sum moved out of {@link #longSum} on overflow. */
+	BigInteger longSumCarry;
+	double doubleMin = Double.POSITIVE_INFINITY;
+	double doubleMax = Double.NEGATIVE_INFINITY;
+	double doubleSum;
+	Object objectMin;
+	Object objectMax;
+
+	/** The distinct values, {@code null} if they are not counted. */
+	private final LongSet distinctNumbers;
+	private final Set<Object> distinctObjects;
+
+	private ColumnStatistics(Kind kind, boolean distinct) {
+		this.kind = kind;
+		this.distinctNumbers = distinct && kind != Kind.OBJECT ? new LongSet()
+				: null;
+		this.distinctObjects = distinct && kind == Kind.OBJECT ? new HashSet<Object>()
+				: null;
+	}
+
+	static Kind kindOf(Class<?> type) {
+		if (type == Long.class || type == Integer.class || type == Short.class
+				|| type == Byte.class || type == long.class
+				|| type == int.class || type == short.class
+				|| type == byte.class) {
+			return Kind.INTEGRAL;
+		}
+		if (type == Double.class || type == Float.class
+				|| type == double.class || type == float.class) {
+			return Kind.FLOATING;
+		}
+		return Kind.OBJECT;
+	}
+
+	/**
+	 * @param container
+	 *            the {@link Container} to read.
+	 * @param propertyId
+	 *            the propertyId of the column to aggregate.
+	 * @param pageSize
+	 *            the page size of the {@link ItemIdCursor}.
+	 * @param distinct
+	 *            whether to collect the distinct values, for
+	 *            {@link #distinctCount()}.
+	 * @return the statistics of the given column.
+	 */
+	static ColumnStatistics compute(Container container, Object propertyId,
+			int pageSize, boolean distinct) {
+		ColumnStatistics statistics = new ColumnStatistics(
+				kindOf(container.getType(propertyId)), distinct);
+		if (container instanceof ContainerSnapshot) {
+			ContainerSnapshot.Column column = ((ContainerSnapshot) container)
+					.column(propertyId);
+			if (column != null) {
+				statistics.addAll(column, container.size());
+				return statistics;
+			}
+		}
+		for (Iterator<Object> itemIds = ItemIdCursor.over(container, pageSize); itemIds
+				.hasNext();) {
+			statistics.add(ContainerDiff.valueOf(container, itemIds.next(),
+					propertyId));
+		}
+		return statistics;
+	}
+
+	private void addAll(ContainerSnapshot.Column column, int size) {
+		for (int row = 0; row < size; row++) {
+			if (column.nulls.get(row)) {
+				nullCount++;
+			} else if (column instanceof ContainerSnapshot.IntColumn) {
+				add(((ContainerSnapshot.IntColumn) column).values[row]);
+			} else if (column instanceof ContainerSnapshot.LongColumn) {
+				add(((ContainerSnapshot.LongColumn) column).values[row]);
+			} else if (column instanceof ContainerSnapshot.DoubleColumn) {
+				add(((ContainerSnapshot.DoubleColumn) column).values[row]);
+			} else {
+				add(column.getValue(row));
+			}
+		}
+	}
+
+	void add(Object value) {
+		if (value == null) {
+			nullCount++;
+		} else if (kind == Kind.INTEGRAL) {
+			add(((Number) value).longValue());
+		} else if (kind == Kind.FLOATING) {
+			add(((Number) value).doubleValue());
+		} else {
+			addObject(value);
+		}
+	}
+
+	private void add(long value) {
+		count++;
+		long sum = longSum + value;
+		if (((longSum ^ sum) & (value ^ sum)) < 0) {
+			// overflow: both operands have the sign the sum has not
+			longSumCarry = (longSumCarry == null ? BigInteger.ZERO
+					: longSumCarry).add(BigInteger.valueOf(longSum));
+			sum = value;
+		}
+		longSum = sum;
+		if (value < longMin) {
+			longMin = value;
+		}
+		if (value > longMax) {
+			longMax = value;
+		}
+		if (distinctNumbers != null) {
+			distinctNumbers.add(value);
+		}
+	}
+
+	private void add(double value) {
+		count++;
+		doubleSum += value;
+		if (value < doubleMin) {
+			doubleMin = value;
+		}
+		if (value > doubleMax) {
+			doubleMax = value;
+		}
+		if (distinctNumbers != null) {
+			distinctNumbers.add(Double.doubleToLongBits(value));
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void addObject(Object value) {
+		count++;
+		if (distinctObjects != null) {
+			distinctObjects.add(value);
+		}
+		if (value instanceof Comparable) {
+			if (objectMin == null || ((Comparable) value).compareTo(objectMin) < 0) {
+				objectMin = value;
+			}
+			if (objectMax == null || ((Comparable) value).compareTo(objectMax) > 0) {
+				objectMax = value;
+			}
+		}
+	}
+
+	boolean isNumeric() {
+		return kind != Kind.OBJECT;
+	}
+
+	/**
+	 * @return the smallest non-null value, {@code null} if there is none.
+	 */
+	Object min() {
+		if (count == 0) {
+			return null;
+		}
+		switch (kind) {
+		case INTEGRAL:
+			return longMin;
+		case FLOATING:
+			return doubleMin;
+		default:
+			return objectMin;
+		}
+	}
+
+	/**
+	 * @return the biggest non-null value, {@code null} if there is none.
+	 */
+	Object max() {
+		if (count == 0) {
+			return null;
+		}
+		switch (kind) {
+		case INTEGRAL:
+			return longMax;
+		case FLOATING:
+			return doubleMax;
+		default:
+			return objectMax;
+		}
+	}
+
+	/**
+	 * @return the sum of the non-null values, as a {@link Long} (a
+	 *         {@link BigInteger} if it does not fit in a {@code long}) or a
+	 *         {@link Double}.
+	 */
+	Number sum() {
+		if (kind == Kind.INTEGRAL) {
+			if (longSumCarry == null) {
+				return Long.valueOf(longSum);
+			}
+			BigInteger sum = longSumCarry.add(BigInteger.valueOf(longSum));
+			return sum.bitLength() < 64 ? (Number) Long.valueOf(sum
+					.longValue()) : sum;
+		}
+		return Double.valueOf(doubleSum);
+	}
+
+	/**
+	 * @return the average of the non-null values, {@code NaN} if there is
+	 *         none.
+	 */
+	double average() {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		return (kind == Kind.INTEGRAL ? sum().doubleValue() : doubleSum) / count;
+	}
+
+	/**
+	 * @return {@code true} if the distinct values have been collected.
+	 */
+	boolean countsDistinct() {
+		return distinctNumbers != null || distinctObjects != null;
+	}
+
+	/**
+	 * @return the number of distinct non-null values, only if
+	 *         {@link #countsDistinct()}.
+	 */
+	int distinctCount() {
+		return kind == Kind.OBJECT ? distinctObjects.size() : distinctNumbers
+				.size();
+	}
+
+	/**
+	 * @param expected
+	 *            a value of the column.
+	 * @param actual
+	 *            the min, max or sum computed by these statistics.
+	 * @return {@code true} if both values are equal, comparing numbers by
+	 *         value whatever their boxed type. The values of an integral
+	 *         column are compared exactly: {@code 10.9} is not {@code 10}.
+	 */
+	boolean sameValue(Object expected, Object actual) {
+		if (expected == null || actual == null) {
+			return expected == actual;
+		}
+		if (kind == Kind.INTEGRAL && expected instanceof Number) {
+			BigDecimal exact = exactValueOf((Number) expected);
+			return exact != null
+					&& exact.compareTo(exactValueOf((Number) actual)) == 0;
+		}
+		if (kind == Kind.FLOATING && expected instanceof Number) {
+			return Double.compare(((Number) expected).doubleValue(),
+					((Double) actual).doubleValue()) == 0;
+		}
+		return expected.equals(actual);
+	}
+
+	/**
+	 * @return the exact value of the given number, {@code null} if it has
+	 *         none (NaN, infinite).
+	 */
+	private static BigDecimal exactValueOf(Number number) {
+		if (number instanceof Long || number instanceof Integer
+				|| number instanceof Short || number instanceof Byte) {
+			return BigDecimal.valueOf(number.longValue());
+		}
+		if (number instanceof BigInteger) {
+			return new BigDecimal((BigInteger) number);
+		}
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		}
+		double value = number.doubleValue();
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return null;
+		}
+		if (number instanceof Double || number instanceof Float) {
+			return new BigDecimal(value);
+		}
+		try {
+			return new BigDecimal(number.toString());
+		} catch (NumberFormatException e) {
+			return new BigDecimal(value);
+		}
+	}
+
+	/**
+	 * Minimal open-addressing hash set of {@code long}, to count distinct
+	 * values without boxing them.
+	 */
+	private static class LongSet {
+
+		private static final long FREE = 0L;
+
+		private long[] slots = new long[16];
+		private boolean hasFree;
+		private int size;
+
+		void add(long value) {
+			if (value == FREE) {
+				if (!hasFree) {
+					hasFree = true;
+					size++;
+				}
+				return;
+			}
+			if ((size + 1) * 2 > slots.length) {
+				rehash();
+			}
+			if (insert(slots, value)) {
+				size++;
+			}
+		}
+
+		int size() {
+			return size;
+		}
+
+		private static boolean insert(long[] slots, long value) {
+			int mask = slots.length - 1;
+			long mixed = value * 0x9E3779B97F4A7C15L;
+			int index = (int) (mixed ^ (mixed >>> 32)) & mask;
+			while (slots[index] != FREE) {
+				if (slots[index] == value) {
+					return false;
+				}
+				index = (index + 1) & mask;
+			}
+			slots[index] = value;
+			return true;
+		}
+
+		private void rehash() {
+			long[] bigger = new long[slots.length * 2];
+			for (long value : slots) {
+				if (value != FREE) {
+					insert(bigger, value);
+				}
+			}
+			slots = bigger;
+		}
+	}
+}
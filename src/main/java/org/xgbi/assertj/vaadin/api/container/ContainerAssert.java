@@ -1,11 +1,27 @@
 package org.xgbi.assertj.vaadin.api.container;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.assertj.core.api.Condition;
+import org.assertj.core.api.ListAssert;
 import org.xgbi.assertj.vaadin.api.AbstractAssert;
+import org.xgbi.assertj.vaadin.api.FailureReport;
 
 import com.vaadin.data.Container;
+import com.vaadin.data.Item;
 import com.vaadin.data.Property;
+import com.vaadin.data.util.BeanItem;
 
 /**
  * Assertions for Vaadin {@link Container}.
@@ -15,12 +31,31 @@ import com.vaadin.data.Property;
  */
 public class ContainerAssert extends AbstractAssert<ContainerAssert, Container> {
 
+	/** Failure messages, shared with {@link ContainerConditions}. */
+	static final String SHOULD_BE_EMPTY = "Expected to be empty (no items).";
+	static final String SHOULD_NOT_BE_EMPTY = "Expected to have at least one item.";
+	static final String SHOULD_HAVE_SIZE = "Expected to have a size of [%s], but was [%s]";
+	static final String SHOULD_CONTAIN_ITEM_ID = "Expected to contain the itemId [%s], but did not.";
+	static final String SHOULD_NOT_CONTAIN_ITEM_ID = "Expected to not contain the itemId [%s], but did.";
+	static final String SHOULD_CONTAIN_PROPERTY_ID = "Expected to contain the propertyId [%s], but did not.";
+
+	private static final String MISSING_PROPERTY_IDS = "missing propertyIds";
+	private static final String UNEXPECTED_PROPERTY_IDS = "unexpected propertyIds";
+	private static final String MISTYPED_PROPERTY_IDS = "mistyped propertyIds";
+
+	private final Map<Object, Comparator<?>> propertyComparators = new HashMap<Object, Comparator<?>>();
+	private int pageSize = ItemIdCursor.DEFAULT_PAGE_SIZE;
+	private boolean parallel;
+	private boolean fullFailureReports;
+	private final ContainerSession session;
+
 	public ContainerAssert(Container actual) {
-		super(actual, ContainerAssert.class);
+		this(actual, ContainerAssert.class);
 	}
 
 	protected ContainerAssert(Container actual, Class<?> type) {
 		super(actual, type);
+		session = new ContainerSession(counted());
 	}
 
 	/**
@@ -35,11 +70,16 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             if the actual {@link Container} is not empty.
 	 */
 	public ContainerAssert isEmpty() {
-		isNotNull();
-		if (getActual().size() != 0) {
-			failWithMessage("Expected to be empty (no items).");
+		started("isEmpty");
+		try {
+			isNotNull();
+			if (session.size() != 0) {
+				failWithMessage(SHOULD_BE_EMPTY);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -54,11 +94,16 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             if the actual {@link Container} is empty.
 	 */
 	public ContainerAssert isNotEmpty() {
-		isNotNull();
-		if (getActual().size() == 0) {
-			failWithMessage("Expected to have at least one item.");
+		started("isNotEmpty");
+		try {
+			isNotNull();
+			if (session.size() == 0) {
+				failWithMessage(SHOULD_NOT_BE_EMPTY);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -75,14 +120,19 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             if the actual {@link Container} has some propertyIds.
 	 */
 	public ContainerAssert hasNoProperties() {
-		isNotNull();
-		Collection<?> propertyIds = getActual().getContainerPropertyIds();
-		isNotNull(propertyIds);
-		if (!propertyIds.isEmpty()) {
-			failWithMessage("Expected to have no properties, but had [%s].",
-					propertyIds);
+		started("hasNoProperties");
+		try {
+			isNotNull();
+			Collection<?> propertyIds = session.propertyIds();
+			isNotNull(propertyIds);
+			if (!propertyIds.isEmpty()) {
+				failWithMessage("Expected to have no properties, but had %s.",
+						failureReport().addAll("propertyIds", propertyIds));
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -105,17 +155,20 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             propertyId.
 	 */
 	public ContainerAssert hasPropertyId(Object propertyId) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(propertyId == null,
-				"The propertyId to look for should not be null.");
-		Collection<?> actualPropertyIds = getActual().getContainerPropertyIds();
-		isNotNull(actualPropertyIds);
-		if (!actualPropertyIds.contains(propertyId)) {
-			failWithMessage(
-					"Expected to contain the propertyId [%s], but did not.",
-					propertyId);
+		started("hasPropertyId");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyId == null,
+					"The propertyId to look for should not be null.");
+			Collection<?> actualPropertyIds = session.propertyIds();
+			isNotNull(actualPropertyIds);
+			if (!actualPropertyIds.contains(propertyId)) {
+				failWithMessage(SHOULD_CONTAIN_PROPERTY_ID, propertyId);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -138,15 +191,30 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             propertyId.
 	 */
 	public ContainerAssert hasPropertyIds(Object... propertyIds) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(propertyIds == null,
-				"The propertyIds to look for should not be null.");
-		throwIllegalArgumentExceptionIfTrue(propertyIds.length == 0,
-				"The propertyIds to look for should not be empty.");
-		for (Object propertyId : propertyIds) {
-			hasPropertyId(propertyId);
+		started("hasPropertyIds");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyIds == null,
+					"The propertyIds to look for should not be null.");
+			throwIllegalArgumentExceptionIfTrue(propertyIds.length == 0,
+					"The propertyIds to look for should not be empty.");
+			Set<Object> actualPropertyIds = propertyIdsSnapshot();
+			List<Object> missingPropertyIds = new ArrayList<Object>();
+			for (Object propertyId : propertyIds) {
+				throwIllegalArgumentExceptionIfTrue(propertyId == null,
+						"The propertyId to look for should not be null.");
+				if (!actualPropertyIds.contains(propertyId)) {
+					missingPropertyIds.add(propertyId);
+				}
+			}
+			if (!missingPropertyIds.isEmpty()) {
+				failWithMessage("Expected to contain the propertyId %s, but did not.",
+						missingPropertyIds);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -169,17 +237,22 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             propertyId.
 	 */
 	public ContainerAssert hasNotPropertyId(Object propertyId) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(propertyId == null,
-				"The propertyId to look for should not be null");
-		Collection<?> actualPropertyIds = getActual().getContainerPropertyIds();
-		isNotNull(actualPropertyIds);
-		if (actualPropertyIds.contains(propertyId)) {
-			failWithMessage(
-					"Expected to contain the propertyId [%s], but did not.",
-					propertyId);
+		started("hasNotPropertyId");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyId == null,
+					"The propertyId to look for should not be null");
+			Collection<?> actualPropertyIds = session.propertyIds();
+			isNotNull(actualPropertyIds);
+			if (actualPropertyIds.contains(propertyId)) {
+				failWithMessage(
+						"Expected to contain the propertyId [%s], but did not.",
+						propertyId);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -203,15 +276,186 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             given propertyId.
 	 */
 	public ContainerAssert hasNotPropertyIds(Object... propertyIds) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(propertyIds == null,
-				"The propertyIds to look for should not be null");
-		throwIllegalArgumentExceptionIfTrue(propertyIds.length == 0,
-				"The propertyIds to look for should not be empty");
-		for (Object propertyId : propertyIds) {
-			hasNotPropertyId(propertyId);
+		started("hasNotPropertyIds");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyIds == null,
+					"The propertyIds to look for should not be null");
+			throwIllegalArgumentExceptionIfTrue(propertyIds.length == 0,
+					"The propertyIds to look for should not be empty");
+			Set<Object> actualPropertyIds = propertyIdsSnapshot();
+			List<Object> presentPropertyIds = new ArrayList<Object>();
+			for (Object propertyId : propertyIds) {
+				throwIllegalArgumentExceptionIfTrue(propertyId == null,
+						"The propertyId to look for should not be null");
+				if (actualPropertyIds.contains(propertyId)) {
+					presentPropertyIds.add(propertyId);
+				}
+			}
+			if (!presentPropertyIds.isEmpty()) {
+				failWithMessage("Expected not to contain the propertyId %s, but did.",
+						presentPropertyIds);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
+	}
+
+	/**
+	 * Assert that the {@link Container} has only the given propertyIds, in
+	 * any order.
+	 * 
+	 * @param propertyIds
+	 *            the propertyIds (Object) to look for in the actual
+	 *            {@link Container}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyIds is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container}'s propertyIds collection is
+	 *             {@code null}.
+	 * @throws AssertionError
+	 *             if some of the given propertyIds are missing or if the actual
+	 *             {@link Container} has other propertyIds.
+	 */
+	public ContainerAssert hasPropertyIdsInAnyOrder(Object... propertyIds) {
+		started("hasPropertyIdsInAnyOrder");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyIds == null,
+					"The propertyIds to look for should not be null");
+			Set<Object> extraPropertyIds = new LinkedHashSet<Object>(
+					propertyIdsSnapshot());
+			FailureReport report = failureReport().category(MISSING_PROPERTY_IDS)
+					.category(UNEXPECTED_PROPERTY_IDS);
+			for (Object propertyId : propertyIds) {
+				if (!extraPropertyIds.remove(propertyId)) {
+					report.add(MISSING_PROPERTY_IDS, propertyId);
+				}
+			}
+			report.addAll(UNEXPECTED_PROPERTY_IDS, extraPropertyIds);
+			if (!report.isEmpty()) {
+				failWithMessage(
+						"Expected to have only the <%s> given propertyIds, but found %s.",
+						propertyIds.length, report);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the {@link Container} has exactly the given propertyIds, in
+	 * the same order.
+	 * 
+	 * @param propertyIds
+	 *            the propertyIds (Object) to look for in the actual
+	 *            {@link Container}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyIds is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container}'s propertyIds collection is
+	 *             {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container}'s propertyIds are not the
+	 *             given ones, in the given order.
+	 */
+	public ContainerAssert hasExactlyPropertyIds(Object... propertyIds) {
+		started("hasExactlyPropertyIds");
+		try {
+			hasPropertyIdsInAnyOrder(propertyIds);
+			FailureReport report = failureReport().category("misplaced propertyIds");
+			int position = 0;
+			for (Object propertyId : propertyIdsSnapshot()) {
+				if (position < propertyIds.length
+						&& !propertyId.equals(propertyIds[position])) {
+					report.add("misplaced propertyIds",
+							"position %s: %s instead of %s", position,
+							propertyId, propertyIds[position]);
+				}
+				position++;
+			}
+			if (!report.isEmpty()) {
+				failWithMessage(
+						"Expected to have exactly the <%s> given propertyIds in order, but found %s.",
+						propertyIds.length, report);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the {@link Container} has exactly the given schema, a.k.a.
+	 * the given propertyIds with the given types. Every missing, unexpected
+	 * and mistyped propertyId is reported at once.
+	 * 
+	 * @param schema
+	 *            the expected type of each propertyId of the actual
+	 *            {@link Container}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given schema is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container}'s propertyIds collection is
+	 *             {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} does not have the given
+	 *             schema.
+	 */
+	public ContainerAssert hasSchema(Map<Object, Class<?>> schema) {
+		started("hasSchema");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(schema == null,
+					"The schema to look for should not be null");
+			Set<Object> extraPropertyIds = new LinkedHashSet<Object>(
+					propertyIdsSnapshot());
+			FailureReport report = failureReport().category(MISSING_PROPERTY_IDS)
+					.category(UNEXPECTED_PROPERTY_IDS).category(MISTYPED_PROPERTY_IDS);
+			for (Map.Entry<Object, Class<?>> column : schema.entrySet()) {
+				Object propertyId = column.getKey();
+				if (!extraPropertyIds.remove(propertyId)) {
+					report.add(MISSING_PROPERTY_IDS, propertyId);
+					continue;
+				}
+				Class<?> actualType = getActual().getType(propertyId);
+				if (column.getValue() != null
+						&& !column.getValue().equals(actualType)) {
+					report.add(MISTYPED_PROPERTY_IDS, "%s: %s instead of %s",
+							propertyId, actualType == null ? null : actualType
+									.getName(), column.getValue().getName());
+				}
+			}
+			report.addAll(UNEXPECTED_PROPERTY_IDS, extraPropertyIds);
+			if (!report.isEmpty()) {
+				failWithMessage(
+						"Expected to have the schema of <%s> propertyIds, but found %s.",
+						schema.size(), report);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	private Set<Object> propertyIdsSnapshot() {
+		Set<Object> actualPropertyIds = session.propertyIds();
+		isNotNull(actualPropertyIds);
+		return actualPropertyIds;
 	}
 
 	/**
@@ -231,14 +475,18 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             itemId.
 	 */
 	public ContainerAssert hasItemId(Object itemId) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(itemId == null,
-				"The itemId to look for should not be null");
-		if (!getActual().containsId(itemId)) {
-			failWithMessage(
-					"Expected to contain the itemId [%s], but did not.", itemId);
+		started("hasItemId");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemId == null,
+					"The itemId to look for should not be null");
+			if (!getActual().containsId(itemId)) {
+				failWithMessage(SHOULD_CONTAIN_ITEM_ID, itemId);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -258,12 +506,629 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             itemId.
 	 */
 	public ContainerAssert hasNotItemId(Object itemId) {
+		started("hasNotItemId");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemId == null,
+					"The itemId to look for should not be null");
+			if (getActual().containsId(itemId)) {
+				failWithMessage(SHOULD_NOT_CONTAIN_ITEM_ID, itemId);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the {@link Container} has all the given itemIds. Every
+	 * missing itemId is reported at once.
+	 * 
+	 * @param itemIds
+	 *            the itemIds (Object) to look for in the actual
+	 *            {@link Container}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemIds or one of them is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} does not contains some of
+	 *             the given itemIds.
+	 */
+	public ContainerAssert hasItemIds(Iterable<?> itemIds) {
+		started("hasItemIds");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemIds == null,
+					"The itemIds to look for should not be null");
+			ItemIdsLookup lookup = lookup(itemIds);
+			if (!lookup.missingItemIds.isEmpty()) {
+				failWithMessage(
+						"Expected to contain the <%s> given itemIds, but found %s.",
+						lookup.presentItemIds.size() + lookup.missingItemIds.size(),
+						failureReport().addAll("missing itemIds",
+								lookup.missingItemIds));
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the {@link Container} has the given itemIds and no other.
+	 * 
+	 * @param itemIds
+	 *            the itemIds (Object) to look for in the actual
+	 *            {@link Container}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemIds or one of them is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} does not contains some of
+	 *             the given itemIds or contains other itemIds.
+	 */
+	public ContainerAssert hasOnlyItemIds(Iterable<?> itemIds) {
+		started("hasOnlyItemIds");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemIds == null,
+					"The itemIds to look for should not be null");
+			Set<Object> expectedItemIds = new LinkedHashSet<Object>();
+			for (Object itemId : itemIds) {
+				expectedItemIds.add(itemId);
+			}
+			ItemIdsLookup lookup = lookup(expectedItemIds);
+			if (!lookup.missingItemIds.isEmpty()
+					|| session.size() != lookup.presentItemIds.size()) {
+				FailureReport report = failureReport().addAll("missing itemIds",
+						lookup.missingItemIds).category("unexpected itemIds");
+				for (Iterator<Object> actualItemIds = itemIds(); actualItemIds
+						.hasNext();) {
+					Object itemId = actualItemIds.next();
+					if (!expectedItemIds.contains(itemId)) {
+						report.add("unexpected itemIds", itemId);
+					}
+				}
+				failWithMessage(
+						"Expected to contain only the <%s> given itemIds, but found %s.",
+						expectedItemIds.size(), report);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * @return a new {@link FailureReport}, writing every mismatch to a file
+	 *         if {@link #withFullFailureReports()} was called.
+	 */
+	FailureReport failureReport() {
+		return new FailureReport(FailureReport.MAX_REPORTED, fullFailureReports);
+	}
+
+	private ItemIdsLookup lookup(Iterable<?> itemIds) {
+		return ItemIdsLookup.lookup(getActual(),
+				ItemIdsLookup.looksUpByIndex(actual), session, itemIds);
+	}
+
+	/**
+	 * Assert that the {@link Container} has none of the given itemIds. Every
+	 * present itemId is reported at once.
+	 * 
+	 * @param itemIds
+	 *            the itemIds (Object) to look for in the actual
+	 *            {@link Container}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemIds or one of them is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} does contains some of the
+	 *             given itemIds.
+	 */
+	public ContainerAssert doesNotHaveAnyItemIds(Iterable<?> itemIds) {
+		started("doesNotHaveAnyItemIds");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemIds == null,
+					"The itemIds to look for should not be null");
+			ItemIdsLookup lookup = lookup(itemIds);
+			if (!lookup.presentItemIds.isEmpty()) {
+				failWithMessage(
+						"Expected to not contain any of the <%s> given itemIds, but found %s.",
+						lookup.presentItemIds.size() + lookup.missingItemIds.size(),
+						failureReport().addAll("present itemIds",
+								lookup.presentItemIds));
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that every {@link Item} of the {@link Container} satisfies the
+	 * given {@link Condition}.
+	 * 
+	 * <p>
+	 * The items are evaluated in the calling thread, unless
+	 * {@link #inParallel()} has been called.
+	 * 
+	 * @param condition
+	 *            the {@link Condition} to evaluate on each {@link Item}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given condition is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if one {@link Item} does not satisfy the given
+	 *             {@link Condition}.
+	 */
+	public ContainerAssert allItemsSatisfy(Condition<? super Item> condition) {
+		started("allItemsSatisfy");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(condition == null,
+					"The condition should not be null");
+			Object itemId = new ItemConditionSearch(getActual(), condition, false)
+					.findFirst(parallel, pageSize);
+			if (itemId != null) {
+				failWithMessage(
+						"Expected all items to satisfy <%s>, but item [%s] did not.",
+						condition, itemId);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that no {@link Item} of the {@link Container} satisfies the given
+	 * {@link Condition}.
+	 * 
+	 * <p>
+	 * The items are evaluated in the calling thread, unless
+	 * {@link #inParallel()} has been called.
+	 * 
+	 * @param condition
+	 *            the {@link Condition} to evaluate on each {@link Item}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given condition is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if one {@link Item} satisfies the given {@link Condition}.
+	 */
+	public ContainerAssert noItemSatisfies(Condition<? super Item> condition) {
+		started("noItemSatisfies");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(condition == null,
+					"The condition should not be null");
+			Object itemId = new ItemConditionSearch(getActual(), condition, true)
+					.findFirst(parallel, pageSize);
+			if (itemId != null) {
+				failWithMessage(
+						"Expected no item to satisfy <%s>, but item [%s] did.",
+						condition, itemId);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that at least one {@link Item} of the {@link Container} satisfies
+	 * the given {@link Condition}.
+	 * 
+	 * <p>
+	 * The items are evaluated in the calling thread, unless
+	 * {@link #inParallel()} has been called.
+	 * 
+	 * @param condition
+	 *            the {@link Condition} to evaluate on each {@link Item}.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given condition is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if no {@link Item} satisfies the given {@link Condition}.
+	 */
+	public ContainerAssert anyItemSatisfies(Condition<? super Item> condition) {
+		started("anyItemSatisfies");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(condition == null,
+					"The condition should not be null");
+			Object itemId = new ItemConditionSearch(getActual(), condition, true)
+					.findFirst(parallel, pageSize);
+			if (itemId == null) {
+				failWithMessage(
+						"Expected at least one item to satisfy <%s>, but none did.",
+						condition);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Start assertions on the values of the given property, like its sum or
+	 * its number of {@code null} values.
+	 * 
+	 * @param propertyId
+	 *            the propertyId (Object) of the column to check.
+	 * @return a new {@link ColumnAssert} for the given property.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyId is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} does not contains the given
+	 *             propertyId.
+	 */
+	public ColumnAssert column(Object propertyId) {
+		started("column");
+		try {
+			hasPropertyId(propertyId);
+			return finished(sharingFailures(new ColumnAssert(actual,
+					propertyId, pageSize)));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Start assertions on the items kept by the given filter of a
+	 * {@link Container.Filterable}:
+	 * 
+	 * <pre>
+	 * assertThat(container).whenFiltered(filter)
+	 * 		.containsExactlyItemsMatching(reference);
+	 * </pre>
+	 * 
+	 * The filter is only added to the {@link Container} during the following
+	 * assertions, and removed afterwards.
+	 * 
+	 * @param filter
+	 *            the filter to check.
+	 * @return a new {@link FilteredContainerAssert} for the given filter.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given filter is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is not a
+	 *             {@link Container.Filterable}.
+	 */
+	public FilteredContainerAssert whenFiltered(Container.Filter filter) {
+		started("whenFiltered");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(filter == null,
+					"The filter should not be null");
+			if (!(actual instanceof Container.Filterable)) {
+				failWithMessage(
+						"Expected container to be filterable, but was a <%s>.",
+						actual.getClass().getName());
+			}
+			return finished(sharingFailures(new FilteredContainerAssert(
+					actual, filter, pageSize)));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Extract the given (possibly nested) property of the beans of a
+	 * {@link Container} of {@link BeanItem}, like a {@code BeanItemContainer},
+	 * in the order of the items, to check them with the assertions on a
+	 * {@link List}:
+	 * 
+	 * <pre>
+	 * assertThat(customers).extractingBeanProperty(&quot;address.city&quot;)
+	 * 		.containsOnly(&quot;Paris&quot;, &quot;Lyon&quot;);
+	 * </pre>
+	 * 
+	 * The property path is resolved once per bean class during the extraction,
+	 * see {@link BeanPropertyAccessor}. The returned assertion always fails
+	 * immediately, even from {@link org.xgbi.assertj.vaadin.api.SoftVaadinAssertions}.
+	 * 
+	 * @param path
+	 *            the names of the bean properties, separated by dots.
+	 * @return a new {@link ListAssert} on the values of the property.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given path is {@code null}, if an item is not a
+	 *             {@link BeanItem} or if a bean has no such property.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 */
+	public ListAssert<Object> extractingBeanProperty(String path) {
+		started("extractingBeanProperty");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(path == null,
+					"The bean property to extract should not be null");
+			List<Object> values = new ArrayList<Object>(session.size());
+			BeanPropertyAccessor.Cache accessors = new BeanPropertyAccessor.Cache();
+			Class<?> beanClass = null;
+			BeanPropertyAccessor accessor = null;
+			for (Iterator<Object> itemIds = itemIds(); itemIds.hasNext();) {
+				Object itemId = itemIds.next();
+				Item item = getActual().getItem(itemId);
+				if (!(item instanceof BeanItem)) {
+					throw new IllegalArgumentException("The item [" + itemId
+							+ "] is not a BeanItem");
+				}
+				Object bean = ((BeanItem<?>) item).getBean();
+				if (bean.getClass() != beanClass) {
+					beanClass = bean.getClass();
+					accessor = accessors.get(beanClass, path);
+				}
+				values.add(accessor.read(bean));
+			}
+			return finished(org.assertj.core.api.Assertions.assertThat(values));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the items of the {@link Container} are sorted by the given
+	 * property.
+	 * 
+	 * @param propertyId
+	 *            the propertyId (Object) the items should be sorted by.
+	 * @param ascending
+	 *            {@code true} if the items should be sorted in ascending order.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyId is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is not a
+	 *             {@link Container.Ordered}.
+	 * @throws AssertionError
+	 *             if the items are not sorted by the given property.
+	 * @see #isSortedBy(Object[], boolean[])
+	 */
+	public ContainerAssert isSortedBy(Object propertyId, boolean ascending) {
+		started("isSortedBy");
+		try {
+			return finished(isSortedBy(new Object[] { propertyId },
+					new boolean[] { ascending }));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the items of the {@link Container} are sorted by the given
+	 * properties, like {@link Container.Sortable#sort(Object[], boolean[])}
+	 * would sort them.
+	 * 
+	 * <p>
+	 * The values are compared with the {@link Comparator} given with
+	 * {@link #usingComparatorForProperty(Object, Comparator)}, or else with
+	 * their natural order ({@code null} first). The items are checked in a
+	 * single pass, keeping only the values of the previous item.
+	 * 
+	 * @param propertyIds
+	 *            the propertyIds (Object) the items should be sorted by, in
+	 *            order of precedence.
+	 * @param ascending
+	 *            for each propertyId, {@code true} if the items should be
+	 *            sorted in ascending order.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyIds or ascending are {@code null}, empty
+	 *             or of different lengths.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is not a
+	 *             {@link Container.Ordered}.
+	 * @throws AssertionError
+	 *             if the items are not sorted by the given properties.
+	 */
+	public ContainerAssert isSortedBy(Object[] propertyIds, boolean[] ascending) {
+		started("isSortedBy");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyIds == null
+					|| propertyIds.length == 0,
+					"The propertyIds to sort by should not be null or empty");
+			throwIllegalArgumentExceptionIfTrue(ascending == null
+					|| ascending.length != propertyIds.length,
+					"There should be one ascending flag per propertyId");
+			if (!(actual instanceof Container.Ordered)) {
+				failWithMessage("Expected container to be ordered, but was a <%s>.",
+						actual.getClass().getName());
+				return finished(this);
+			}
+			PropertyValuesComparator comparator = new PropertyValuesComparator(
+					propertyIds, ascending, propertyComparators);
+			Object[] previousValues = new Object[propertyIds.length];
+			Object[] values = new Object[propertyIds.length];
+			Object previousItemId = null;
+			for (Iterator<Object> itemIds = itemIds(); itemIds.hasNext();) {
+				Object itemId = itemIds.next();
+				for (int i = 0; i < propertyIds.length; i++) {
+					values[i] = ContainerDiff.valueOf(getActual(), itemId,
+							propertyIds[i]);
+				}
+				if (previousItemId != null
+						&& comparator.compare(previousValues, values) > 0) {
+					failWithMessage(
+							"Expected items to be sorted by %s, but item [%s] %s came after item [%s] %s.",
+							Arrays.asList(propertyIds), itemId,
+							Arrays.asList(values), previousItemId,
+							Arrays.asList(previousValues));
+					return finished(this);
+				}
+				Object[] swap = previousValues;
+				previousValues = values;
+				values = swap;
+				previousItemId = itemId;
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Sort the {@link Container.Sortable} by the given properties and assert
+	 * that the resulting order is the one of a reference sort of the items.
+	 * 
+	 * <p>
+	 * The sort keys of every item are read once before the sort (see
+	 * {@link ReferenceSort}) and compared like in
+	 * {@link #isSortedBy(Object[], boolean[])}. Items with equal keys may come
+	 * in any order, see {@link #sortsStablyBy(Object[], boolean[])} to check
+	 * that they keep their original order.
+	 * 
+	 * <p>
+	 * The actual {@link Container} is left sorted.
+	 * 
+	 * @param propertyIds
+	 *            the propertyIds (Object) to sort by, in order of precedence.
+	 * @param ascending
+	 *            for each propertyId, {@code true} to sort in ascending order.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyIds or ascending are {@code null}, empty
+	 *             or of different lengths.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is not a
+	 *             {@link Container.Sortable}.
+	 * @throws AssertionError
+	 *             if the sorted items are not in the order of the reference
+	 *             sort.
+	 */
+	public ContainerAssert sortsCorrectlyBy(Object[] propertyIds,
+			boolean[] ascending) {
+		started("sortsCorrectlyBy");
+		try {
+			return finished(sortsBy(propertyIds, ascending, false));
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Like {@link #sortsCorrectlyBy(Object[], boolean[])}, and also assert
+	 * that the items with equal keys keep their original order.
+	 * 
+	 * @param propertyIds
+	 *            the propertyIds (Object) to sort by, in order of precedence.
+	 * @param ascending
+	 *            for each propertyId, {@code true} to sort in ascending order.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyIds or ascending are {@code null}, empty
+	 *             or of different lengths.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is not a
+	 *             {@link Container.Sortable}.
+	 * @throws AssertionError
+	 *             if the sorted items are not in the order of the reference
+	 *             sort, or if items with equal keys have been swapped.
+	 */
+	public ContainerAssert sortsStablyBy(Object[] propertyIds,
+			boolean[] ascending) {
+		started("sortsStablyBy");
+		try {
+			return finished(sortsBy(propertyIds, ascending, true));
+		} finally {
+			ended();
+		}
+	}
+
+	private ContainerAssert sortsBy(Object[] propertyIds, boolean[] ascending,
+			boolean stable) {
 		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(itemId == null,
-				"The itemId to look for should not be null");
-		if (getActual().containsId(itemId)) {
+		throwIllegalArgumentExceptionIfTrue(propertyIds == null
+				|| propertyIds.length == 0,
+				"The propertyIds to sort by should not be null or empty");
+		throwIllegalArgumentExceptionIfTrue(ascending == null
+				|| ascending.length != propertyIds.length,
+				"There should be one ascending flag per propertyId");
+		if (!(actual instanceof Container.Sortable)) {
+			failWithMessage("Expected container to be sortable, but was a <%s>.",
+					actual.getClass().getName());
+			return this;
+		}
+		ReferenceSort reference = ReferenceSort.read(getActual(), propertyIds,
+				ascending, propertyComparators, pageSize);
+		int[] expectedRows = reference.sortedRows();
+		((Container.Sortable) getActual()).sort(propertyIds, ascending);
+		int position = 0;
+		for (Iterator<Object> itemIds = ItemIdCursor.over(getActual(),
+				pageSize); itemIds.hasNext(); position++) {
+			Object itemId = itemIds.next();
+			int row = reference.rowOf(itemId);
+			if (row < 0 || position >= expectedRows.length) {
+				failWithMessage(
+						"Expected the sort by %s to keep the same items, but item [%s] was not expected.",
+						Arrays.asList(propertyIds), itemId);
+				return this;
+			}
+			int expectedRow = expectedRows[position];
+			if (row == expectedRow) {
+				continue;
+			}
+			if (reference.compareRows(row, expectedRow) != 0) {
+				failWithMessage(
+						"Expected the sort by %s to put item [%s] %s at position <%s>, but found item [%s] %s.",
+						Arrays.asList(propertyIds),
+						reference.itemId(expectedRow),
+						reference.keys(expectedRow), position, itemId,
+						reference.keys(row));
+				return this;
+			}
+			if (stable) {
+				failWithMessage(
+						"Expected the sort by %s to be stable, but item [%s] came before item [%s] with the same keys %s.",
+						Arrays.asList(propertyIds), itemId,
+						reference.itemId(expectedRow), reference.keys(row));
+				return this;
+			}
+		}
+		if (position != expectedRows.length) {
 			failWithMessage(
-					"Expected to not contain the itemId [%s], but did.", itemId);
+					"Expected the sort by %s to keep the <%s> items, but found <%s>.",
+					Arrays.asList(propertyIds), expectedRows.length, position);
 		}
 		return this;
 	}
@@ -292,19 +1157,24 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             propertyId.
 	 */
 	public ContainerAssert hasProperty(Object propertyId, Object itemId) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(propertyId == null,
-				"The propertyId to look for should not be null");
-		throwIllegalArgumentExceptionIfTrue(itemId == null,
-				"The itemId to look for should not be null");
-		Property property = getActual()
-				.getContainerProperty(itemId, propertyId);
-		if (property == null) {
-			failWithMessage(
-					"Expected to contain a property identified by itemId [%s] and propertyId [%s]",
-					itemId, propertyId);
+		started("hasProperty");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyId == null,
+					"The propertyId to look for should not be null");
+			throwIllegalArgumentExceptionIfTrue(itemId == null,
+					"The itemId to look for should not be null");
+			Property property = getActual()
+					.getContainerProperty(itemId, propertyId);
+			if (property == null) {
+				failWithMessage(
+						"Expected to contain a property identified by itemId [%s] and propertyId [%s]",
+						itemId, propertyId);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -329,18 +1199,23 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             for the property identified by the given propertyId.
 	 */
 	public ContainerAssert hasTypeFor(Object propertyId, Class<?> expectedType) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(propertyId == null,
-				"The propertyId to look for should not be null");
-		throwIllegalArgumentExceptionIfTrue(expectedType == null,
-				"The type to look for should not be null");
-		Class<?> actualType = getActual().getType(propertyId);
-		if (!expectedType.equals(actualType)) {
-			failWithMessage(
-					"Expected property identified by [%s] to have the type [%s], but had [%s]",
-					propertyId, expectedType, actualType);
+		started("hasTypeFor");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(propertyId == null,
+					"The propertyId to look for should not be null");
+			throwIllegalArgumentExceptionIfTrue(expectedType == null,
+					"The type to look for should not be null");
+			Class<?> actualType = getActual().getType(propertyId);
+			if (!expectedType.equals(actualType)) {
+				failWithMessage(
+						"Expected property identified by [%s] to have the type [%s], but had [%s]",
+						propertyId, expectedType, actualType);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -356,11 +1231,130 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             if the actual {@link Container} does not have the given size.
 	 */
 	public ContainerAssert hasSize(int size) {
+		started("hasSize");
+		try {
+			isNotNull();
+			int actualSize = session.size();
+			if (actualSize != size) {
+				failWithMessage(SHOULD_HAVE_SIZE, size, actualSize);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Read the itemIds of a {@link Container.Indexed} by pages of the given
+	 * size in the assertions that walk through every item (the default is
+	 * {@value ItemIdCursor#DEFAULT_PAGE_SIZE}).
+	 * 
+	 * @param pageSize
+	 *            the number of itemIds to read at once.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given pageSize is not strictly positive.
+	 */
+	public ContainerAssert withPageSize(int pageSize) {
+		throwIllegalArgumentExceptionIfTrue(pageSize <= 0,
+				"The page size should be strictly positive");
+		this.pageSize = pageSize;
+		return this;
+	}
+
+	/**
+	 * Evaluate the item conditions (see {@link #allItemsSatisfy(Condition)})
+	 * of large {@link Container.Indexed} in parallel. The {@link Container}
+	 * and the {@link Condition} must then be thread-safe for reads, like an
+	 * in-memory {@code IndexedContainer} or {@code BeanItemContainer} that is
+	 * not modified meanwhile.
+	 * 
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 */
+	public ContainerAssert inParallel() {
+		this.parallel = true;
+		return this;
+	}
+
+	/**
+	 * Write every mismatch found by the following assertions (for example
+	 * {@link #equals(Container)} or {@link #hasItemIds(Iterable)}) to a
+	 * temporary file when they fail. The failure message only lists the first
+	 * {@value FailureReport#MAX_REPORTED} ones and gives the path of that file.
+	 * 
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 */
+	public ContainerAssert withFullFailureReports() {
+		this.fullFailureReports = true;
+		return this;
+	}
+
+	/**
+	 * Start an assertion session: the results of {@code size()},
+	 * {@code getItemIds()} and {@code getContainerPropertyIds()} are memoized
+	 * for the following assertions, until {@link #endSession()}. They are
+	 * forgotten when the {@link Container} notifies a change of its items or
+	 * properties (if it is a {@link Container.ItemSetChangeNotifier} or a
+	 * {@link Container.PropertySetChangeNotifier}).
+	 * 
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 */
+	public ContainerAssert inSession() {
 		isNotNull();
-		if (getActual().size() != size) {
-			failWithMessage("Expected to have a size of [%s], but was [%s]",
-					size, getActual().size());
+		session.start();
+		return this;
+	}
+
+	/**
+	 * End the assertion session started by {@link #inSession()}: forget the
+	 * memoized results and stop listening to the {@link Container}.
+	 * 
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 */
+	public ContainerAssert endSession() {
+		session.end();
+		return this;
+	}
+
+	/**
+	 * @return a new cursor over the itemIds of the actual {@link Container}.
+	 */
+	Iterator<Object> itemIds() {
+		if (actual instanceof Container.Ordered) {
+			return ItemIdCursor.over(getActual(), pageSize);
 		}
+		return ItemIdCursor.over(session.itemIds());
+	}
+
+	/**
+	 * Use the given {@link Comparator} to compare the cells of the given
+	 * propertyId in {@link #equals(Container)},
+	 * {@link #isSortedBy(Object[], boolean[])} and
+	 * {@link #sortsCorrectlyBy(Object[], boolean[])}.
+	 * 
+	 * @param propertyId
+	 *            the propertyId (Object) whose cells are compared with the
+	 *            given {@link Comparator}.
+	 * @param comparator
+	 *            the {@link Comparator} to use for this propertyId.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyId is {@code null}.
+	 * @throws IllegalArgumentException
+	 *             if the given comparator is {@code null}.
+	 */
+	public ContainerAssert usingComparatorForProperty(Object propertyId,
+			Comparator<?> comparator) {
+		throwIllegalArgumentExceptionIfTrue(propertyId == null,
+				"The propertyId should not be null");
+		throwIllegalArgumentExceptionIfTrue(comparator == null,
+				"The comparator should not be null");
+		propertyComparators.put(propertyId, comparator);
 		return this;
 	}
 
@@ -369,9 +1363,17 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 * .
 	 * 
 	 * <p>
-	 * NB: This is a naive approach as it just check that it has the same
-	 * propertyIds and itemIds. In a near future it might do more
-	 * <em>introspection</em>, on each cells.
+	 * Both containers must have the same propertyIds, the same itemIds and the
+	 * same value in each cell. Cells are compared with
+	 * {@link Object#equals(Object)} unless a {@link Comparator} has been given
+	 * for the propertyId with
+	 * {@link #usingComparatorForProperty(Object, Comparator)}. See
+	 * {@link ContainerDiff} for the details.
+	 * 
+	 * <p>
+	 * The failure message lists the first
+	 * {@value FailureReport#MAX_REPORTED} differences and counts the others,
+	 * see {@link #withFullFailureReports()} to get all of them.
 	 * 
 	 * @param container
 	 *            the container (Object) to compare to the actual
@@ -387,18 +1389,75 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             {@link Container}.
 	 */
 	public ContainerAssert equals(Container container) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(container == null,
-				"The container to look for should not be null");
-		Collection<?> expectedPropertyIds = container.getContainerPropertyIds();
-		Collection<?> expectedItemIds = container.getItemIds();
-		for (Object expectedPropertyId : expectedPropertyIds) {
-			hasPropertyId(expectedPropertyId);
+		started("equals");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(container == null,
+					"The container to look for should not be null");
+			ContainerDiff diff = ContainerDiff.compute(container, getActual(),
+					propertyComparators, pageSize);
+			if (!diff.isEmpty()) {
+				failWithMessage("Expected containers to be equal, but found %s.",
+						diff.report(fullFailureReports));
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		for (Object expectedItemId : expectedItemIds) {
-			hasItemId(expectedItemId);
+	}
+
+	/**
+	 * Assert that the {@link Container} matches the given golden file: same
+	 * propertyIds and types, same itemIds in the same order and same cells.
+	 * If the file does not exist yet, it is written from the {@link Container}
+	 * and the assertion passes.
+	 * 
+	 * <p>
+	 * The file is read through memory mapped windows while the
+	 * {@link Container} is walked, so its content is never loaded as a whole.
+	 * See {@link SnapshotFile} for the format.
+	 * 
+	 * @param snapshot
+	 *            the golden file.
+	 * @return this {@link ContainerAssert} for assertions chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given file is {@code null}.
+	 * @throws IllegalStateException
+	 *             if the file can not be written or read, or is corrupt or
+	 *             truncated.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} does not match the file.
+	 */
+	public ContainerAssert matchesSnapshot(File snapshot) {
+		started("matchesSnapshot");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(snapshot == null,
+					"The snapshot file should not be null");
+			try {
+				if (!snapshot.exists()) {
+					SnapshotFile.write(getActual(), propertyIdsSnapshot(),
+							itemIds(), snapshot);
+					return finished(this);
+				}
+				FailureReport differences = SnapshotFile.compare(getActual(),
+						propertyIdsSnapshot(), itemIds(), snapshot);
+				if (!differences.isEmpty()) {
+					failWithMessage(
+							"Expected container to match the snapshot <%s>, but found %s.",
+							snapshot.getPath(), differences);
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not use the snapshot "
+						+ snapshot, e);
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
 	}
 
 	/**
@@ -419,19 +1478,33 @@ public class ContainerAssert extends AbstractAssert<ContainerAssert, Container>
 	 *             {@link Container}.
 	 */
 	public ContainerAssert same(Container container) {
-		isNotNull();
-		throwIllegalArgumentExceptionIfTrue(container == null,
-				"The container to look for should not be null");
-		if (getActual() != container) {
-			failWithMessage(
-					"Expected container [%s] to be the same as [%s] but was not.",
-					getActual(), container);
+		started("same");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(container == null,
+					"The container to look for should not be null");
+			if (actual != container) {
+				failWithMessage(
+						"Expected container [%s] to be the same as [%s] but was not.",
+						identity(actual), identity(container));
+			}
+			return finished(this);
+		} finally {
+			ended();
 		}
-		return this;
+	}
+
+	/**
+	 * @return the class name and identity hash code of the given object, that
+	 *         describe it without reading it (unlike its {@code toString()}).
+	 */
+	private static String identity(Object object) {
+		return object.getClass().getName() + "@"
+				+ Integer.toHexString(System.identityHashCode(object));
 	}
 
 	// visible for test
 	protected Container getActual() {
-		return actual;
+		return counted();
 	}
 }
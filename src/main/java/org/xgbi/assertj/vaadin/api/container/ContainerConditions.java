@@ -0,0 +1,157 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.Collection;
+
+import org.xgbi.assertj.vaadin.api.VaadinCondition;
+
+import com.vaadin.data.Container;
+
+/**
+ * The checks of {@link ContainerAssert} as reusable, non-throwing
+ * {@link VaadinCondition}s, for example to classify many containers without
+ * catching {@link AssertionError}s. Each call returns a new condition, so that
+ * describing it (see {@link VaadinCondition#as(String, Object...)}) does not
+ * change the others. Its failure messages are the ones of
+ * {@link ContainerAssert}.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public final class ContainerConditions {
+
+	private ContainerConditions() {
+	}
+
+	public static VaadinCondition<Container> empty() {
+		return new VaadinCondition<Container>("empty") {
+			@Override
+			public boolean matches(Container value) {
+				return value != null && value.size() == 0;
+			}
+
+			@Override
+			protected String describeFailure(Container actual) {
+				return ContainerAssert.SHOULD_BE_EMPTY;
+			}
+		};
+	}
+
+	public static VaadinCondition<Container> notEmpty() {
+		return new VaadinCondition<Container>("not empty") {
+			@Override
+			public boolean matches(Container value) {
+				return value != null && value.size() > 0;
+			}
+
+			@Override
+			protected String describeFailure(Container actual) {
+				return ContainerAssert.SHOULD_NOT_BE_EMPTY;
+			}
+		};
+	}
+
+	/**
+	 * @param size
+	 *            the expected number of items.
+	 * @return a condition matching the containers of the given size.
+	 */
+	public static VaadinCondition<Container> size(final int size) {
+		return new VaadinCondition<Container>("of size %s", size) {
+			@Override
+			public boolean matches(Container value) {
+				return value != null && value.size() == size;
+			}
+
+			@Override
+			protected String describeFailure(Container actual) {
+				return format(ContainerAssert.SHOULD_HAVE_SIZE, size,
+						actual.size());
+			}
+		};
+	}
+
+	/**
+	 * @param itemId
+	 *            the itemId to look for.
+	 * @return a condition matching the containers with the given itemId.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemId is {@code null}.
+	 */
+	public static VaadinCondition<Container> itemId(final Object itemId) {
+		if (itemId == null) {
+			throw new IllegalArgumentException(
+					"The itemId to look for should not be null");
+		}
+		return new VaadinCondition<Container>("with the itemId %s", itemId) {
+			@Override
+			public boolean matches(Container value) {
+				return value != null && value.containsId(itemId);
+			}
+
+			@Override
+			protected String describeFailure(Container actual) {
+				return format(ContainerAssert.SHOULD_CONTAIN_ITEM_ID, itemId);
+			}
+		};
+	}
+
+	/**
+	 * @param itemId
+	 *            the itemId to look for.
+	 * @return a condition matching the containers without the given itemId.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemId is {@code null}.
+	 */
+	public static VaadinCondition<Container> noItemId(final Object itemId) {
+		if (itemId == null) {
+			throw new IllegalArgumentException(
+					"The itemId to look for should not be null");
+		}
+		return new VaadinCondition<Container>("without the itemId %s", itemId) {
+			@Override
+			public boolean matches(Container value) {
+				return value != null && !value.containsId(itemId);
+			}
+
+			@Override
+			protected String describeFailure(Container actual) {
+				return format(ContainerAssert.SHOULD_NOT_CONTAIN_ITEM_ID,
+						itemId);
+			}
+		};
+	}
+
+	/**
+	 * @param propertyId
+	 *            the propertyId to look for.
+	 * @return a condition matching the containers with the given propertyId.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given propertyId is {@code null}.
+	 */
+	public static VaadinCondition<Container> propertyId(final Object propertyId) {
+		if (propertyId == null) {
+			throw new IllegalArgumentException(
+					"The propertyId to look for should not be null.");
+		}
+		return new VaadinCondition<Container>("with the propertyId %s",
+				propertyId) {
+			@Override
+			public boolean matches(Container value) {
+				if (value == null) {
+					return false;
+				}
+				Collection<?> propertyIds = value.getContainerPropertyIds();
+				return propertyIds != null && propertyIds.contains(propertyId);
+			}
+
+			@Override
+			protected String describeFailure(Container actual) {
+				return format(ContainerAssert.SHOULD_CONTAIN_PROPERTY_ID,
+						propertyId);
+			}
+		};
+	}
+}
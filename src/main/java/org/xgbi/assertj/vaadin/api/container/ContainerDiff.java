@@ -0,0 +1,258 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Property;
+
+/**
+ * Cell-level difference between two Vaadin {@link Container}.
+ *
+ * <p>
+ * The itemIds of the expected {@link Container} are read once, the actual
+ * rows are then joined on their itemId and each of their cells is compared
+ * once with the expected one, with {@link Object#equals(Object)} or the
+ * {@link Comparator} given for its propertyId. The changed rows are reported
+ * with the propertyIds of their different cells. Only the expected itemIds
+ * (and the changed propertyIds) are kept in memory, the cells themselves are
+ * read on the fly.
+ *
+ * <p>
+ * Rows are not fingerprinted: a hash of the cells would have to be checked
+ * cell by cell anyway (different values, like {@code "Aa"} and {@code "BB"},
+ * may have the same hash), which would read every equal row twice.
+ *
+ * <p>
+ * The text of a {@link ContainerDiff} is bounded: only the first
+ * {@value FailureReport#MAX_REPORTED} itemIds and propertyIds are listed (see
+ * {@link FailureReport}), the others are only counted.
+ *
+ * @author Vincent Demeester
+ *
+ */
+public class ContainerDiff {
+
+	private final List<Object> missingPropertyIds = new ArrayList<Object>();
+	private final List<Object> unexpectedPropertyIds = new ArrayList<Object>();
+	private final List<Object> missingItemIds = new ArrayList<Object>();
+	private final List<Object> unexpectedItemIds = new ArrayList<Object>();
+	private final Map<Object, List<Object>> changedItemIds = new LinkedHashMap<Object, List<Object>>();
+
+	private ContainerDiff() {
+	}
+
+	/**
+	 * Compute the difference between the expected and actual
+	 * {@link Container}.
+	 *
+	 * @param expected
+	 *            the reference {@link Container}.
+	 * @param actual
+	 *            the {@link Container} to compare to the reference.
+	 * @param comparators
+	 *            the {@link Comparator} to use for some propertyIds, might be
+	 *            empty.
+	 * @return the {@link ContainerDiff} between both {@link Container}.
+	 */
+	public static ContainerDiff compute(Container expected, Container actual,
+			Map<Object, Comparator<?>> comparators) {
+		return compute(expected, actual, comparators,
+				ItemIdCursor.DEFAULT_PAGE_SIZE);
+	}
+
+	static ContainerDiff compute(Container expected, Container actual,
+			Map<Object, Comparator<?>> comparators, int pageSize) {
+		ContainerDiff diff = new ContainerDiff();
+		Set<Object> actualPropertyIds = new HashSet<Object>(
+				actual.getContainerPropertyIds());
+		Set<Object> expectedPropertyIds = new HashSet<Object>(
+				expected.getContainerPropertyIds());
+		for (Object propertyId : actual.getContainerPropertyIds()) {
+			if (!expectedPropertyIds.contains(propertyId)) {
+				diff.unexpectedPropertyIds.add(propertyId);
+			}
+		}
+		List<Object> commonPropertyIds = new ArrayList<Object>();
+		for (Object propertyId : expected.getContainerPropertyIds()) {
+			if (!actualPropertyIds.contains(propertyId)) {
+				diff.missingPropertyIds.add(propertyId);
+			} else {
+				commonPropertyIds.add(propertyId);
+			}
+		}
+
+		Set<Object> expectedItemIds = new LinkedHashSet<Object>();
+		for (Iterator<Object> itemIds = ItemIdCursor.over(expected, pageSize); itemIds
+				.hasNext();) {
+			expectedItemIds.add(itemIds.next());
+		}
+
+		for (Iterator<Object> itemIds = ItemIdCursor.over(actual, pageSize); itemIds
+				.hasNext();) {
+			Object itemId = itemIds.next();
+			if (!expectedItemIds.remove(itemId)) {
+				diff.unexpectedItemIds.add(itemId);
+				continue;
+			}
+			List<Object> changedPropertyIds = changedCells(expected, actual,
+					itemId, commonPropertyIds, comparators);
+			if (changedPropertyIds != null) {
+				diff.changedItemIds.put(itemId, changedPropertyIds);
+			}
+		}
+		diff.missingItemIds.addAll(expectedItemIds);
+		return diff;
+	}
+
+	/**
+	 * Compute the difference between the expected and actual
+	 * {@link Container}, comparing every cell with
+	 * {@link Object#equals(Object)}.
+	 *
+	 * @param expected
+	 *            the reference {@link Container}.
+	 * @param actual
+	 *            the {@link Container} to compare to the reference.
+	 * @return the {@link ContainerDiff} between both {@link Container}.
+	 */
+	public static ContainerDiff compute(Container expected, Container actual) {
+		return compute(expected, actual,
+				new HashMap<Object, Comparator<?>>());
+	}
+
+	/**
+	 * @return the propertyIds of the different cells of the given item, or
+	 *         {@code null} if they are all equal.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static List<Object> changedCells(Container expected,
+			Container actual, Object itemId, List<Object> propertyIds,
+			Map<Object, Comparator<?>> comparators) {
+		List<Object> changed = null;
+		for (Object propertyId : propertyIds) {
+			Object expectedValue = valueOf(expected, itemId, propertyId);
+			Object actualValue = valueOf(actual, itemId, propertyId);
+			boolean same;
+			if (expectedValue == null || actualValue == null) {
+				same = expectedValue == actualValue;
+			} else {
+				Comparator comparator = comparators.get(propertyId);
+				same = comparator == null ? expectedValue.equals(actualValue)
+						: comparator.compare(expectedValue, actualValue) == 0;
+			}
+			if (!same) {
+				if (changed == null) {
+					changed = new ArrayList<Object>();
+				}
+				changed.add(propertyId);
+			}
+		}
+		return changed;
+	}
+
+	static Object valueOf(Container container, Object itemId, Object propertyId) {
+		Property property = container.getContainerProperty(itemId, propertyId);
+		return property == null ? null : property.getValue();
+	}
+
+	/**
+	 * @return {@code true} if both {@link Container} have the same
+	 *         propertyIds, itemIds and cells.
+	 */
+	public boolean isEmpty() {
+		return missingPropertyIds.isEmpty() && unexpectedPropertyIds.isEmpty()
+				&& missingItemIds.isEmpty()
+				&& unexpectedItemIds.isEmpty() && changedItemIds.isEmpty();
+	}
+
+	/**
+	 * @return the expected propertyIds not found in the actual
+	 *         {@link Container}.
+	 */
+	public List<Object> getMissingPropertyIds() {
+		return Collections.unmodifiableList(missingPropertyIds);
+	}
+
+	/**
+	 * @return the propertyIds of the actual {@link Container} that were not
+	 *         expected.
+	 */
+	public List<Object> getUnexpectedPropertyIds() {
+		return Collections.unmodifiableList(unexpectedPropertyIds);
+	}
+
+	/**
+	 * @return the expected itemIds not found in the actual {@link Container}.
+	 */
+	public List<Object> getMissingItemIds() {
+		return Collections.unmodifiableList(missingItemIds);
+	}
+
+	/**
+	 * @return the itemIds of the actual {@link Container} that were not
+	 *         expected.
+	 */
+	public List<Object> getUnexpectedItemIds() {
+		return Collections.unmodifiableList(unexpectedItemIds);
+	}
+
+	/**
+	 * @return the itemIds present in both {@link Container} with at least one
+	 *         different cell.
+	 */
+	public List<Object> getChangedItemIds() {
+		return Collections.unmodifiableList(new ArrayList<Object>(
+				changedItemIds.keySet()));
+	}
+
+	/**
+	 * @param itemId
+	 *            one of the {@link #getChangedItemIds()}.
+	 * @return the propertyIds of the different cells of the given item, empty
+	 *         if it has not changed.
+	 */
+	public List<Object> getChangedPropertyIds(Object itemId) {
+		List<Object> propertyIds = changedItemIds.get(itemId);
+		return propertyIds == null ? Collections.emptyList() : Collections
+				.unmodifiableList(propertyIds);
+	}
+
+	/**
+	 * @param full
+	 *            {@code true} to write all of them to a temporary file when
+	 *            the report is rendered.
+	 * @return the bounded report of this {@link ContainerDiff}.
+	 */
+	FailureReport report(boolean full) {
+		FailureReport report = new FailureReport(FailureReport.MAX_REPORTED,
+				full);
+		report.addAll("missing propertyIds", missingPropertyIds);
+		report.addAll("unexpected propertyIds", unexpectedPropertyIds);
+		report.addAll("missing itemIds", missingItemIds);
+		report.addAll("unexpected itemIds", unexpectedItemIds);
+		report.category("changed itemIds");
+		for (Map.Entry<Object, List<Object>> changed : changedItemIds
+				.entrySet()) {
+			report.add("changed itemIds", "%s %s", changed.getKey(),
+					changed.getValue());
+		}
+		return report;
+	}
+
+	@Override
+	public String toString() {
+		return report(false).toString();
+	}
+}
@@ -0,0 +1,156 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.vaadin.data.Container;
+
+/**
+ * Access to the expensive calls of a {@link Container} ({@code size()},
+ * {@code getItemIds()} and {@code getContainerPropertyIds()}) for a
+ * {@link ContainerAssert}.
+ *
+ * <p>
+ * By default every call goes to the {@link Container}. Once started, the
+ * session memoizes the results until it is ended. If the {@link Container} is
+ * an {@link Container.ItemSetChangeNotifier} or a
+ * {@link Container.PropertySetChangeNotifier}, the memoized results are
+ * forgotten as soon as the items or the properties change. The listener only
+ * holds a weak reference to the session, so a session that is never ended
+ * does not keep its memoized results alive.
+ *
+ * @author Vincent Demeester
+ *
+ */
+class ContainerSession {
+
+	private final Container container;
+	private boolean memoizing;
+	private Integer size;
+	private Collection<?> itemIds;
+	private Set<Object> propertyIds;
+	private InvalidationListener listener;
+
+	ContainerSession(Container container) {
+		this.container = container;
+	}
+
+	void start() {
+		if (memoizing) {
+			return;
+		}
+		memoizing = true;
+		listener = new InvalidationListener(this);
+		if (container instanceof Container.ItemSetChangeNotifier) {
+			((Container.ItemSetChangeNotifier) container).addListener(listener);
+		}
+		if (container instanceof Container.PropertySetChangeNotifier) {
+			((Container.PropertySetChangeNotifier) container)
+					.addListener(listener);
+		}
+	}
+
+	void end() {
+		if (!memoizing) {
+			return;
+		}
+		if (container instanceof Container.ItemSetChangeNotifier) {
+			((Container.ItemSetChangeNotifier) container)
+					.removeListener(listener);
+		}
+		if (container instanceof Container.PropertySetChangeNotifier) {
+			((Container.PropertySetChangeNotifier) container)
+					.removeListener(listener);
+		}
+		listener = null;
+		memoizing = false;
+		invalidateItems();
+		invalidateProperties();
+	}
+
+	int size() {
+		if (!memoizing) {
+			return container.size();
+		}
+		if (size == null) {
+			size = container.size();
+		}
+		return size;
+	}
+
+	Collection<?> itemIds() {
+		if (!memoizing) {
+			return container.getItemIds();
+		}
+		if (itemIds == null) {
+			itemIds = container.getItemIds();
+		}
+		return itemIds;
+	}
+
+	/**
+	 * @return the propertyIds of the {@link Container} as a {@link Set} (that
+	 *         should not be modified), {@code null} if the {@link Container}
+	 *         returns {@code null}.
+	 */
+	Set<Object> propertyIds() {
+		if (memoizing && propertyIds != null) {
+			return propertyIds;
+		}
+		Collection<?> actualPropertyIds = container.getContainerPropertyIds();
+		if (actualPropertyIds == null) {
+			return null;
+		}
+		Set<Object> snapshot = Collections
+				.unmodifiableSet(new LinkedHashSet<Object>(actualPropertyIds));
+		if (memoizing) {
+			propertyIds = snapshot;
+		}
+		return snapshot;
+	}
+
+	void invalidateItems() {
+		size = null;
+		itemIds = null;
+	}
+
+	void invalidateProperties() {
+		propertyIds = null;
+	}
+
+	private static class InvalidationListener implements
+			Container.ItemSetChangeListener,
+			Container.PropertySetChangeListener {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient WeakReference<ContainerSession> session;
+
+		InvalidationListener(ContainerSession session) {
+			this.session = new WeakReference<ContainerSession>(session);
+		}
+
+		private ContainerSession session() {
+			// the reference is lost if the container has been serialized
+			return session == null ? null : session.get();
+		}
+
+		public void containerItemSetChange(Container.ItemSetChangeEvent event) {
+			ContainerSession current = session();
+			if (current != null) {
+				current.invalidateItems();
+			}
+		}
+
+		public void containerPropertySetChange(
+				Container.PropertySetChangeEvent event) {
+			ContainerSession current = session();
+			if (current != null) {
+				current.invalidateProperties();
+			}
+		}
+	}
+}
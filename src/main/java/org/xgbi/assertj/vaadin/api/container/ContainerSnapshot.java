@@ -0,0 +1,612 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+import com.vaadin.data.Property;
+
+/**
+ * Immutable, column-oriented copy of a Vaadin {@link Container}.
+ *
+ * <p>
+ * The cells are read once from the source {@link Container} and stored by
+ * column: {@code int}, {@code long}, {@code double} and {@code boolean}
+ * properties in primitive arrays, {@link String} properties in a dictionary
+ * (each distinct value is stored once) and any other property in an
+ * {@code Object} array. As a {@link Container.Indexed}, a snapshot can be
+ * given to {@code assertThat} like any other {@link Container}, every read is
+ * then a plain array access. The rows of {@link Integer} or {@link Long}
+ * itemIds are looked up in a table of {@code long}, other itemIds in a
+ * {@link HashMap}.
+ *
+ * <p>
+ * Every method modifying the snapshot throws an
+ * {@link UnsupportedOperationException}.
+ *
+ * @author Vincent Demeester
+ *
+ */
+public final class ContainerSnapshot implements Container.Indexed {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Object[] itemIds;
+	private final RowIndex rows;
+	private final Map<Object, Column> columns;
+	private final List<Object> itemIdList = new ItemIdList();
+
+	private ContainerSnapshot(Object[] itemIds, Map<Object, Column> columns) {
+		this.itemIds = itemIds;
+		this.columns = columns;
+		this.rows = RowIndex.of(itemIds);
+	}
+
+	/**
+	 * Copy the given {@link Container}.
+	 *
+	 * @param container
+	 *            the {@link Container} to copy.
+	 * @return a new {@link ContainerSnapshot} with the itemIds, propertyIds,
+	 *         types and cells of the given {@link Container}.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the given container is {@code null}.
+	 */
+	public static ContainerSnapshot of(Container container) {
+		if (container == null) {
+			throw new IllegalArgumentException(
+					"The container to copy should not be null");
+		}
+		int size = container.size();
+		Map<Object, Column> columns = new LinkedHashMap<Object, Column>();
+		for (Object propertyId : container.getContainerPropertyIds()) {
+			columns.put(propertyId,
+					Column.create(container.getType(propertyId), size));
+		}
+		Object[] itemIds = new Object[size];
+		int row = 0;
+		for (Iterator<Object> cursor = ItemIdCursor.over(container,
+				ItemIdCursor.DEFAULT_PAGE_SIZE); cursor.hasNext(); row++) {
+			Object itemId = cursor.next();
+			itemIds[row] = itemId;
+			for (Map.Entry<Object, Column> column : columns.entrySet()) {
+				column.getValue().set(row,
+						ContainerDiff.valueOf(container, itemId, column.getKey()));
+			}
+		}
+		for (Column column : columns.values()) {
+			column.freeze();
+		}
+		return new ContainerSnapshot(itemIds, columns);
+	}
+
+	public Item getItem(Object itemId) {
+		int row = rows.rowOf(itemId);
+		return row < 0 ? null : new RowItem(row);
+	}
+
+	public Collection<?> getContainerPropertyIds() {
+		return Collections.unmodifiableSet(columns.keySet());
+	}
+
+	public Collection<?> getItemIds() {
+		return itemIdList;
+	}
+
+	public Property getContainerProperty(Object itemId, Object propertyId) {
+		int row = rows.rowOf(itemId);
+		Column column = columns.get(propertyId);
+		return row < 0 || column == null ? null : new CellProperty(column, row);
+	}
+
+	public Class<?> getType(Object propertyId) {
+		Column column = columns.get(propertyId);
+		return column == null ? null : column.type;
+	}
+
+	public int size() {
+		return itemIds.length;
+	}
+
+	public boolean containsId(Object itemId) {
+		return rows.rowOf(itemId) >= 0;
+	}
+
+	public int indexOfId(Object itemId) {
+		return rows.rowOf(itemId);
+	}
+
+	public Object getIdByIndex(int index) {
+		return itemIds[index];
+	}
+
+	public Object nextItemId(Object itemId) {
+		int row = indexOfId(itemId);
+		return row < 0 || row + 1 >= itemIds.length ? null : itemIds[row + 1];
+	}
+
+	public Object prevItemId(Object itemId) {
+		int row = indexOfId(itemId);
+		return row <= 0 ? null : itemIds[row - 1];
+	}
+
+	public Object firstItemId() {
+		return itemIds.length == 0 ? null : itemIds[0];
+	}
+
+	public Object lastItemId() {
+		return itemIds.length == 0 ? null : itemIds[itemIds.length - 1];
+	}
+
+	public boolean isFirstId(Object itemId) {
+		return itemIds.length > 0 && itemIds[0].equals(itemId);
+	}
+
+	public boolean isLastId(Object itemId) {
+		return itemIds.length > 0 && itemIds[itemIds.length - 1].equals(itemId);
+	}
+
+	public Item addItem(Object itemId) {
+		throw readOnly();
+	}
+
+	public Object addItem() {
+		throw readOnly();
+	}
+
+	public boolean removeItem(Object itemId) {
+		throw readOnly();
+	}
+
+	public boolean addContainerProperty(Object propertyId, Class<?> type,
+			Object defaultValue) {
+		throw readOnly();
+	}
+
+	public boolean removeContainerProperty(Object propertyId) {
+		throw readOnly();
+	}
+
+	public boolean removeAllItems() {
+		throw readOnly();
+	}
+
+	public Object addItemAfter(Object previousItemId) {
+		throw readOnly();
+	}
+
+	public Item addItemAfter(Object previousItemId, Object newItemId) {
+		throw readOnly();
+	}
+
+	public Object addItemAt(int index) {
+		throw readOnly();
+	}
+
+	public Item addItemAt(int index, Object newItemId) {
+		throw readOnly();
+	}
+
+	Column column(Object propertyId) {
+		return columns.get(propertyId);
+	}
+
+	@Override
+	public String toString() {
+		return "ContainerSnapshot[" + itemIds.length + " items, "
+				+ columns.keySet() + "]";
+	}
+
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException(
+				"A ContainerSnapshot can not be modified");
+	}
+
+	/**
+	 * Read-only view of the itemIds of the snapshot.
+	 */
+	private class ItemIdList extends AbstractList<Object> implements
+			Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Object get(int index) {
+			return itemIds[index];
+		}
+
+		@Override
+		public int size() {
+			return itemIds.length;
+		}
+
+		@Override
+		public boolean contains(Object itemId) {
+			return containsId(itemId);
+		}
+	}
+
+	/**
+	 * The rows of the itemIds of the snapshot.
+	 */
+	abstract static class RowIndex implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		static RowIndex of(Object[] itemIds) {
+			Class<?> type = itemIds.length == 0 || itemIds[0] == null ? null
+					: itemIds[0].getClass();
+			if (type == Integer.class || type == Long.class) {
+				boolean sameType = true;
+				for (int i = 1; i < itemIds.length && sameType; i++) {
+					sameType = itemIds[i] != null
+							&& itemIds[i].getClass() == type;
+				}
+				if (sameType) {
+					return new NumberRowIndex(type, itemIds);
+				}
+			}
+			return new HashRowIndex(itemIds);
+		}
+
+		/**
+		 * @return the row of the given itemId, -1 if there is none.
+		 */
+		abstract int rowOf(Object itemId);
+	}
+
+	/**
+	 * Open-addressing table from {@link Integer} or {@link Long} itemIds to
+	 * their rows, that keeps the itemIds as {@code long}.
+	 */
+	static class NumberRowIndex extends RowIndex {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Class<?> type;
+		private final long[] keys;
+		/** The rows plus one, 0 for a free slot. */
+		private final int[] rows;
+
+		NumberRowIndex(Class<?> type, Object[] itemIds) {
+			this.type = type;
+			int capacity = Integer.highestOneBit(Math.max(itemIds.length, 1)) * 4;
+			keys = new long[capacity];
+			rows = new int[capacity];
+			for (int row = 0; row < itemIds.length; row++) {
+				int slot = slotOf(((Number) itemIds[row]).longValue());
+				if (rows[slot] == 0) {
+					keys[slot] = ((Number) itemIds[row]).longValue();
+					rows[slot] = row + 1;
+				}
+			}
+		}
+
+		@Override
+		int rowOf(Object itemId) {
+			if (itemId == null || itemId.getClass() != type) {
+				return -1;
+			}
+			return rows[slotOf(((Number) itemId).longValue())] - 1;
+		}
+
+		/**
+		 * @return the slot of the given key, or the free slot where it would
+		 *         be.
+		 */
+		private int slotOf(long key) {
+			int mask = keys.length - 1;
+			long mixed = key * 0x9E3779B97F4A7C15L;
+			int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+			while (rows[slot] != 0 && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+	}
+
+	static class HashRowIndex extends RowIndex {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Map<Object, Integer> rows;
+
+		HashRowIndex(Object[] itemIds) {
+			rows = new HashMap<Object, Integer>(itemIds.length * 4 / 3 + 1);
+			for (int row = 0; row < itemIds.length; row++) {
+				rows.put(itemIds[row], row);
+			}
+		}
+
+		@Override
+		int rowOf(Object itemId) {
+			Integer row = rows.get(itemId);
+			return row == null ? -1 : row;
+		}
+	}
+
+	/**
+	 * Read-only view of a row of the snapshot.
+	 */
+	private class RowItem implements Item {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int row;
+
+		RowItem(int row) {
+			this.row = row;
+		}
+
+		public Property getItemProperty(Object id) {
+			Column column = columns.get(id);
+			return column == null ? null : new CellProperty(column, row);
+		}
+
+		public Collection<?> getItemPropertyIds() {
+			return getContainerPropertyIds();
+		}
+
+		public boolean addItemProperty(Object id, Property property) {
+			throw readOnly();
+		}
+
+		public boolean removeItemProperty(Object id) {
+			throw readOnly();
+		}
+	}
+
+	/**
+	 * Read-only view of a cell of the snapshot.
+	 */
+	private static class CellProperty implements Property {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Column column;
+		private final int row;
+
+		CellProperty(Column column, int row) {
+			this.column = column;
+			this.row = row;
+		}
+
+		public Object getValue() {
+			return column.get(row);
+		}
+
+		public void setValue(Object newValue) {
+			throw new ReadOnlyException("A ContainerSnapshot can not be modified");
+		}
+
+		public Class<?> getType() {
+			return column.type;
+		}
+
+		public boolean isReadOnly() {
+			return true;
+		}
+
+		public void setReadOnly(boolean newStatus) {
+			throw readOnly();
+		}
+
+		@Override
+		public String toString() {
+			Object value = getValue();
+			return value == null ? null : value.toString();
+		}
+	}
+
+	/**
+	 * Storage of the cells of a property.
+	 */
+	abstract static class Column implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		final Class<?> type;
+		final BitSet nulls = new BitSet();
+
+		Column(Class<?> type) {
+			this.type = type;
+		}
+
+		static Column create(Class<?> type, int size) {
+			if (type == Integer.class || type == int.class) {
+				return new IntColumn(type, size);
+			}
+			if (type == Long.class || type == long.class) {
+				return new LongColumn(type, size);
+			}
+			if (type == Double.class || type == double.class) {
+				return new DoubleColumn(type, size);
+			}
+			if (type == Boolean.class || type == boolean.class) {
+				return new BooleanColumn(type, size);
+			}
+			if (type == String.class) {
+				return new DictionaryColumn(type, size);
+			}
+			return new ObjectColumn(type, size);
+		}
+
+		final void set(int row, Object value) {
+			if (value == null) {
+				nulls.set(row);
+			} else {
+				setValue(row, value);
+			}
+		}
+
+		final Object get(int row) {
+			return nulls.get(row) ? null : getValue(row);
+		}
+
+		abstract void setValue(int row, Object value);
+
+		abstract Object getValue(int row);
+
+		void freeze() {
+		}
+	}
+
+	static class IntColumn extends Column {
+
+		private static final long serialVersionUID = 1L;
+
+		final int[] values;
+
+		IntColumn(Class<?> type, int size) {
+			super(type);
+			values = new int[size];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = ((Integer) value).intValue();
+		}
+
+		@Override
+		Object getValue(int row) {
+			return values[row];
+		}
+	}
+
+	static class LongColumn extends Column {
+
+		private static final long serialVersionUID = 1L;
+
+		final long[] values;
+
+		LongColumn(Class<?> type, int size) {
+			super(type);
+			values = new long[size];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = ((Long) value).longValue();
+		}
+
+		@Override
+		Object getValue(int row) {
+			return values[row];
+		}
+	}
+
+	static class DoubleColumn extends Column {
+
+		private static final long serialVersionUID = 1L;
+
+		final double[] values;
+
+		DoubleColumn(Class<?> type, int size) {
+			super(type);
+			values = new double[size];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = ((Double) value).doubleValue();
+		}
+
+		@Override
+		Object getValue(int row) {
+			return values[row];
+		}
+	}
+
+	static class BooleanColumn extends Column {
+
+		private static final long serialVersionUID = 1L;
+
+		final BitSet values = new BitSet();
+
+		BooleanColumn(Class<?> type, int size) {
+			super(type);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values.set(row, ((Boolean) value).booleanValue());
+		}
+
+		@Override
+		Object getValue(int row) {
+			return values.get(row);
+		}
+	}
+
+	static class DictionaryColumn extends Column {
+
+		private static final long serialVersionUID = 1L;
+
+		final int[] codes;
+		private transient Map<String, Integer> dictionary = new HashMap<String, Integer>();
+		private transient List<String> words = new ArrayList<String>();
+		String[] values;
+
+		DictionaryColumn(Class<?> type, int size) {
+			super(type);
+			codes = new int[size];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			String word = (String) value;
+			Integer code = dictionary.get(word);
+			if (code == null) {
+				code = words.size();
+				dictionary.put(word, code);
+				words.add(word);
+			}
+			codes[row] = code;
+		}
+
+		@Override
+		Object getValue(int row) {
+			return values[codes[row]];
+		}
+
+		@Override
+		void freeze() {
+			values = words.toArray(new String[words.size()]);
+			dictionary = null;
+			words = null;
+		}
+	}
+
+	static class ObjectColumn extends Column {
+
+		private static final long serialVersionUID = 1L;
+
+		final Object[] values;
+
+		ObjectColumn(Class<?> type, int size) {
+			super(type);
+			values = new Object[size];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = value;
+		}
+
+		@Override
+		Object getValue(int row) {
+			return values[row];
+		}
+	}
+}
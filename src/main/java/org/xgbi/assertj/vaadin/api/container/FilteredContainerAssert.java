@@ -0,0 +1,111 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.assertj.core.api.Condition;
+import org.xgbi.assertj.vaadin.api.AbstractAssert;
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Container.Filter;
+import com.vaadin.data.Item;
+
+/**
+ * Assertions on the items kept by a {@link Filter} of a
+ * {@link Container.Filterable}.
+ *
+ * <p>
+ * The reference condition is evaluated once on every item of the unfiltered
+ * {@link Container}, only the itemIds of the matching ones are kept, in their
+ * order. The filter is then added, each filtered item is checked off that set
+ * in a single pass, and the filter is removed: the itemIds left in the set
+ * have been wrongly filtered out.
+ *
+ * @author Vincent Demeester
+ *
+ */
+public class FilteredContainerAssert extends
+		AbstractAssert<FilteredContainerAssert, Container> {
+
+	private static final String WRONGLY_FILTERED_OUT = "wrongly filtered out itemIds";
+	private static final String WRONGLY_KEPT = "wrongly kept itemIds";
+
+	private final Filter filter;
+	private final int pageSize;
+
+	FilteredContainerAssert(Container actual, Filter filter, int pageSize) {
+		super(actual, FilteredContainerAssert.class);
+		this.filter = filter;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Assert that the filter keeps exactly the items of the {@link Container}
+	 * that satisfy the given condition.
+	 *
+	 * @param condition
+	 *            the reference condition.
+	 * @return this {@link FilteredContainerAssert} for assertions chaining.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the given condition is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container} is {@code null}.
+	 * @throws AssertionError
+	 *             if the filter removes an item satisfying the condition, or
+	 *             keeps an item that does not.
+	 */
+	public FilteredContainerAssert containsExactlyItemsMatching(
+			Condition<? super Item> condition) {
+		started("containsExactlyItemsMatching");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(condition == null,
+					"The condition should not be null");
+			if (!(actual instanceof Container.Filterable)) {
+				// already reported (softly) by ContainerAssert.whenFiltered
+				return finished(this);
+			}
+			Container.Filterable filterable = (Container.Filterable) counted();
+			Set<Object> matching = new LinkedHashSet<Object>();
+			for (Iterator<Object> cursor = ItemIdCursor.over(counted(), pageSize); cursor
+					.hasNext();) {
+				Object itemId = cursor.next();
+				if (condition.matches(counted().getItem(itemId))) {
+					matching.add(itemId);
+				}
+			}
+
+			FailureReport report = new FailureReport().category(
+					WRONGLY_FILTERED_OUT).category(WRONGLY_KEPT);
+			filterable.addContainerFilter(filter);
+			try {
+				for (Iterator<Object> cursor = ItemIdCursor.over(counted(), pageSize); cursor
+						.hasNext();) {
+					Object itemId = cursor.next();
+					if (!matching.remove(itemId)) {
+						report.add(WRONGLY_KEPT, itemId);
+					}
+				}
+			} finally {
+				filterable.removeContainerFilter(filter);
+			}
+			report.addAll(WRONGLY_FILTERED_OUT, matching);
+			if (!report.isEmpty()) {
+				failWithMessage(
+						"Expected the filter <%s> to keep exactly the items satisfying <%s>, but found %s.",
+						filterName(), condition, report);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	private String filterName() {
+		String name = filter.getClass().getSimpleName();
+		return name.length() > 0 ? name : filter.getClass().getName();
+	}
+}
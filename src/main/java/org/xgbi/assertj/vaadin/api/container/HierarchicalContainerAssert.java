@@ -0,0 +1,269 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.assertj.core.api.Condition;
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+
+/**
+ * Assertions for Vaadin {@link Container.Hierarchical}.
+ * 
+ * <p>
+ * The assertions over the whole tree walk it iteratively (see
+ * {@link HierarchyWalk}), so they work on trees of any depth.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+public class HierarchicalContainerAssert extends ContainerAssert {
+
+	private HierarchyWalk shape;
+
+	public HierarchicalContainerAssert(Container.Hierarchical actual) {
+		super(actual, HierarchicalContainerAssert.class);
+	}
+
+	// visible for test
+	protected Container.Hierarchical getActual() {
+		return (Container.Hierarchical) super.getActual();
+	}
+
+	private HierarchyWalk shape() {
+		if (shape == null) {
+			shape = HierarchyWalk.walk(getActual(), null);
+		}
+		return shape;
+	}
+
+	private FailureReport nodesByDepth() {
+		FailureReport report = failureReport().category("nodes by depth");
+		for (int nodes : shape().depthHistogram()) {
+			report.add("nodes by depth", nodes);
+		}
+		return report;
+	}
+
+	/**
+	 * Assert that the roots of the {@link Container.Hierarchical} are the given
+	 * itemIds (in any order).
+	 * 
+	 * @param rootIds
+	 *            the itemIds of the expected roots.
+	 * @return this {@link HierarchicalContainerAssert} for assertions
+	 *         chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given rootIds is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container.Hierarchical} is {@code null}.
+	 * @throws AssertionError
+	 *             if the roots are not the given ones.
+	 */
+	public HierarchicalContainerAssert hasRoots(Object... rootIds) {
+		started("hasRoots");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(rootIds == null,
+					"The rootIds to look for should not be null");
+			compareItemIds("roots", getActual().rootItemIds(), rootIds);
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the children of the given item are the given itemIds (in
+	 * any order).
+	 * 
+	 * @param itemId
+	 *            the itemId of the parent.
+	 * @param childIds
+	 *            the itemIds of the expected children.
+	 * @return this {@link HierarchicalContainerAssert} for assertions
+	 *         chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemId or childIds is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container.Hierarchical} is {@code null}.
+	 * @throws AssertionError
+	 *             if the children of the given item are not the given ones.
+	 */
+	public HierarchicalContainerAssert hasChildren(Object itemId,
+			Object... childIds) {
+		started("hasChildren");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemId == null,
+					"The itemId to look for should not be null");
+			throwIllegalArgumentExceptionIfTrue(childIds == null,
+					"The childIds to look for should not be null");
+			compareItemIds("children of [" + itemId + "]", getActual()
+					.getChildren(itemId), childIds);
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	private void compareItemIds(String description, Collection<?> actualIds,
+			Object[] expectedIds) {
+		Set<Object> extraIds = actualIds == null ? new LinkedHashSet<Object>()
+				: new LinkedHashSet<Object>(actualIds);
+		FailureReport report = failureReport().category("missing itemIds")
+				.category("unexpected itemIds");
+		for (Object expectedId : expectedIds) {
+			if (!extraIds.remove(expectedId)) {
+				report.add("missing itemIds", expectedId);
+			}
+		}
+		report.addAll("unexpected itemIds", extraIds);
+		if (!report.isEmpty()) {
+			failWithMessage(
+					"Expected the %s to be the <%s> given itemIds, but found %s.",
+					description, expectedIds.length, report);
+		}
+	}
+
+	/**
+	 * Assert that the given item has no children.
+	 * 
+	 * @param itemId
+	 *            the itemId to check.
+	 * @return this {@link HierarchicalContainerAssert} for assertions
+	 *         chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given itemId is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container.Hierarchical} is {@code null}.
+	 * @throws AssertionError
+	 *             if the given item has children.
+	 */
+	public HierarchicalContainerAssert isLeaf(Object itemId) {
+		started("isLeaf");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(itemId == null,
+					"The itemId to look for should not be null");
+			if (getActual().hasChildren(itemId)) {
+				failWithMessage(
+						"Expected item [%s] to be a leaf, but it had %s.", itemId,
+						failureReport().addAll("children",
+								getActual().getChildren(itemId)));
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the deepest node of the tree is at the given depth, the
+	 * roots being at depth 1.
+	 * 
+	 * @param depth
+	 *            the expected depth of the tree.
+	 * @return this {@link HierarchicalContainerAssert} for assertions
+	 *         chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link Container.Hierarchical} is {@code null}.
+	 * @throws AssertionError
+	 *             if the tree has another depth.
+	 */
+	public HierarchicalContainerAssert hasDepth(int depth) {
+		started("hasDepth");
+		try {
+			isNotNull();
+			if (shape().maxDepth() != depth) {
+				failWithMessage(
+						"Expected to have a depth of [%s], but was [%s] (%s)",
+						depth, shape().maxDepth(), nodesByDepth());
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that the tree has the given number of nodes reachable from its
+	 * roots.
+	 * 
+	 * @param count
+	 *            the expected number of nodes.
+	 * @return this {@link HierarchicalContainerAssert} for assertions
+	 *         chaining.
+	 * 
+	 * @throws AssertionError
+	 *             if the actual {@link Container.Hierarchical} is {@code null}.
+	 * @throws AssertionError
+	 *             if the tree has another number of nodes.
+	 */
+	public HierarchicalContainerAssert hasNodeCount(int count) {
+		started("hasNodeCount");
+		try {
+			isNotNull();
+			if (shape().nodeCount() != count) {
+				failWithMessage(
+						"Expected to have [%s] nodes, but had [%s] (%s)",
+						count, shape().nodeCount(), nodesByDepth());
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+
+	/**
+	 * Assert that every node of the tree satisfies the given {@link Condition}
+	 * . The tree is walked depth-first and the walk stops at the first node
+	 * that does not.
+	 * 
+	 * @param condition
+	 *            the {@link Condition} to evaluate on each {@link Item}.
+	 * @return this {@link HierarchicalContainerAssert} for assertions
+	 *         chaining.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the given condition is {@code null}.
+	 * @throws AssertionError
+	 *             if the actual {@link Container.Hierarchical} is {@code null}.
+	 * @throws AssertionError
+	 *             if one node does not satisfy the given {@link Condition}.
+	 */
+	public HierarchicalContainerAssert everyNodeSatisfies(
+			final Condition<? super Item> condition) {
+		started("everyNodeSatisfies");
+		try {
+			isNotNull();
+			throwIllegalArgumentExceptionIfTrue(condition == null,
+					"The condition should not be null");
+			final Object[] failing = new Object[1];
+			HierarchyWalk.walk(getActual(), new HierarchyWalk.Visitor() {
+				public boolean visit(Object itemId, int depth) {
+					if (condition.matches(getActual().getItem(itemId))) {
+						return true;
+					}
+					failing[0] = itemId;
+					return false;
+				}
+			});
+			if (failing[0] != null) {
+				failWithMessage(
+						"Expected every node to satisfy <%s>, but node [%s] did not.",
+						condition, failing[0]);
+			}
+			return finished(this);
+		} finally {
+			ended();
+		}
+	}
+}
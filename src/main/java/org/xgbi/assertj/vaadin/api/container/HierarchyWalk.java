@@ -0,0 +1,142 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.vaadin.data.Container;
+
+/**
+ * Depth-first, pre-order walk of a {@link Container.Hierarchical} from its
+ * roots, with an explicit stack so that deep trees can not overflow the call
+ * stack.
+ * 
+ * <p>
+ * The walk counts the nodes and builds the depth histogram (the number of
+ * nodes at each depth, roots being at depth 1) as it goes. A {@link Visitor}
+ * may stop it early.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+class HierarchyWalk {
+
+	/**
+	 * Called for each node of the walk.
+	 */
+	interface Visitor {
+
+		/**
+		 * @param itemId
+		 *            the itemId of the node.
+		 * @param depth
+		 *            the depth of the node, 1 for a root.
+		 * @return {@code false} to stop the walk.
+		 */
+		boolean visit(Object itemId, int depth);
+	}
+
+	private int nodeCount;
+	private int[] histogram = new int[16];
+	private int maxDepth;
+	private boolean stopped;
+
+	private HierarchyWalk() {
+	}
+
+	/**
+	 * Walk the whole tree of the given {@link Container.Hierarchical}.
+	 * 
+	 * @param container
+	 *            the container to walk through.
+	 * @param visitor
+	 *            the {@link Visitor} of each node, might be {@code null}.
+	 * @return the result of the walk.
+	 */
+	static HierarchyWalk walk(Container.Hierarchical container, Visitor visitor) {
+		HierarchyWalk walk = new HierarchyWalk();
+		Object[] itemIds = new Object[64];
+		int[] depths = new int[64];
+		int top = 0;
+		for (Object rootId : reversed(container.rootItemIds())) {
+			if (top == itemIds.length) {
+				itemIds = Arrays.copyOf(itemIds, top * 2);
+				depths = Arrays.copyOf(depths, top * 2);
+			}
+			itemIds[top] = rootId;
+			depths[top++] = 1;
+		}
+		while (top > 0) {
+			Object itemId = itemIds[--top];
+			int depth = depths[top];
+			itemIds[top] = null;
+			walk.count(depth);
+			if (visitor != null && !visitor.visit(itemId, depth)) {
+				walk.stopped = true;
+				return walk;
+			}
+			if (!container.hasChildren(itemId)) {
+				continue;
+			}
+			for (Object childId : reversed(container.getChildren(itemId))) {
+				if (top == itemIds.length) {
+					itemIds = Arrays.copyOf(itemIds, top * 2);
+					depths = Arrays.copyOf(depths, top * 2);
+				}
+				itemIds[top] = childId;
+				depths[top++] = depth + 1;
+			}
+		}
+		return walk;
+	}
+
+	private static Object[] reversed(Collection<?> itemIds) {
+		Object[] array = itemIds == null ? new Object[0] : itemIds.toArray();
+		for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+			Object swap = array[i];
+			array[i] = array[j];
+			array[j] = swap;
+		}
+		return array;
+	}
+
+	private void count(int depth) {
+		nodeCount++;
+		if (depth >= histogram.length) {
+			histogram = Arrays.copyOf(histogram, Math.max(depth + 1,
+					histogram.length * 2));
+		}
+		histogram[depth]++;
+		if (depth > maxDepth) {
+			maxDepth = depth;
+		}
+	}
+
+	/**
+	 * @return the number of nodes reachable from the roots.
+	 */
+	int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return the depth of the deepest node, 0 if there is no node.
+	 */
+	int maxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return the number of nodes at each depth, from depth 1 to the max
+	 *         depth.
+	 */
+	int[] depthHistogram() {
+		return Arrays.copyOfRange(histogram, 1, maxDepth + 1);
+	}
+
+	/**
+	 * @return {@code true} if the {@link Visitor} stopped the walk.
+	 */
+	boolean isStopped() {
+		return stopped;
+	}
+}
@@ -0,0 +1,155 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Condition;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+
+/**
+ * Search for the first item of a {@link Container} whose evaluation of a
+ * {@link Condition} gives the expected result.
+ *
+ * <p>
+ * When the parallel search is asked for, large {@link Container.Indexed} are
+ * searched in parallel: the index range is split into chunks evaluated by a
+ * pool of daemon threads, created for the search and shut down at its end.
+ * Once an item is found, the chunks after it are abandoned, and the smallest
+ * matching index is returned so the result does not depend on the
+ * scheduling. Otherwise the items are walked sequentially with an
+ * {@link ItemIdCursor}, stopping at the first match.
+ *
+ * @author Vincent Demeester
+ *
+ */
+class ItemConditionSearch {
+
+	/** Below this size, a parallel search costs more than it saves. */
+	static final int PARALLEL_THRESHOLD = 10000;
+
+	private static final int THREADS = Runtime.getRuntime()
+			.availableProcessors();
+
+	private final Container container;
+	private final Condition<? super Item> condition;
+	private final boolean expected;
+
+	/**
+	 * @param container
+	 *            the {@link Container} to search in.
+	 * @param condition
+	 *            the {@link Condition} to evaluate on each item.
+	 * @param expected
+	 *            the result of {@link Condition#matches(Object)} to look for.
+	 */
+	ItemConditionSearch(Container container,
+			Condition<? super Item> condition, boolean expected) {
+		this.container = container;
+		this.condition = condition;
+		this.expected = expected;
+	}
+
+	/**
+	 * @param parallel
+	 *            {@code true} to search a large {@link Container.Indexed} in
+	 *            parallel.
+	 * @param pageSize
+	 *            the page size of the sequential {@link ItemIdCursor}.
+	 * @return the itemId of the first matching item, {@code null} if there is
+	 *         none.
+	 */
+	Object findFirst(boolean parallel, int pageSize) {
+		if (parallel && THREADS > 1 && container instanceof Container.Indexed
+				&& container.size() >= PARALLEL_THRESHOLD) {
+			return findFirstInParallel((Container.Indexed) container);
+		}
+		for (Iterator<Object> itemIds = ItemIdCursor.over(container, pageSize); itemIds
+				.hasNext();) {
+			Object itemId = itemIds.next();
+			if (matches(itemId)) {
+				return itemId;
+			}
+		}
+		return null;
+	}
+
+	private boolean matches(Object itemId) {
+		return condition.matches(container.getItem(itemId)) == expected;
+	}
+
+	private Object findFirstInParallel(final Container.Indexed indexed) {
+		final int size = indexed.size();
+		final AtomicInteger firstIndex = new AtomicInteger(Integer.MAX_VALUE);
+		int chunks = THREADS * 4;
+		int chunkSize = (size + chunks - 1) / chunks;
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int start = 0; start < size; start += chunkSize) {
+			final int from = start;
+			final int to = Math.min(size, start + chunkSize);
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					for (int index = from; index < to
+							&& index < firstIndex.get(); index++) {
+						if (matches(indexed.getIdByIndex(index))) {
+							lowerTo(firstIndex, index);
+							return null;
+						}
+					}
+					return null;
+				}
+			});
+		}
+		ExecutorService executor = newExecutor();
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while evaluating the condition", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		int index = firstIndex.get();
+		return index == Integer.MAX_VALUE ? null : indexed.getIdByIndex(index);
+	}
+
+	private static void lowerTo(AtomicInteger firstIndex, int index) {
+		int current = firstIndex.get();
+		while (index < current && !firstIndex.compareAndSet(current, index)) {
+			current = firstIndex.get();
+		}
+	}
+
+	private static ExecutorService newExecutor() {
+		return Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "assertj-vaadin-"
+						+ count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
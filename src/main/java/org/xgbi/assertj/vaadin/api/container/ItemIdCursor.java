@@ -0,0 +1,135 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.vaadin.data.Container;
+
+/**
+ * Forward-only cursor over the itemIds of a {@link Container}, that does not
+ * load all the itemIds at once.
+ *
+ * <ul>
+ * <li>a {@link Container.Indexed} is read by pages of itemIds with
+ * {@link Container.Indexed#getIdByIndex(int)},</li>
+ * <li>a {@link Container.Ordered} is walked with
+ * {@link Container.Ordered#firstItemId()} and
+ * {@link Container.Ordered#nextItemId(Object)},</li>
+ * <li>any other {@link Container} falls back to
+ * {@link Container#getItemIds()}.</li>
+ * </ul>
+ *
+ * @author Vincent Demeester
+ *
+ */
+abstract class ItemIdCursor implements Iterator<Object> {
+
+	static final int DEFAULT_PAGE_SIZE = 100;
+
+	/**
+	 * @param container
+	 *            the {@link Container} to walk through.
+	 * @param pageSize
+	 *            the number of itemIds read at once from a
+	 *            {@link Container.Indexed}.
+	 * @return a new {@link ItemIdCursor} positioned before the first itemId.
+	 */
+	static ItemIdCursor over(Container container, int pageSize) {
+		if (container instanceof Container.Indexed) {
+			return new IndexedCursor((Container.Indexed) container, pageSize);
+		}
+		if (container instanceof Container.Ordered) {
+			return new OrderedCursor((Container.Ordered) container);
+		}
+		return new CollectionCursor(container.getItemIds());
+	}
+
+	/**
+	 * @param itemIds
+	 *            itemIds already read from a {@link Container}.
+	 * @return a new {@link ItemIdCursor} positioned before the first itemId.
+	 */
+	static ItemIdCursor over(Collection<?> itemIds) {
+		return new CollectionCursor(itemIds);
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private static class IndexedCursor extends ItemIdCursor {
+
+		private final Container.Indexed container;
+		private final Object[] page;
+		private final int size;
+		private int pageStart;
+		private int pageLength;
+		private int index;
+
+		IndexedCursor(Container.Indexed container, int pageSize) {
+			this.container = container;
+			this.size = container.size();
+			this.page = new Object[Math.max(1, Math.min(pageSize, size))];
+		}
+
+		public boolean hasNext() {
+			return index < size;
+		}
+
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (index >= pageStart + pageLength) {
+				pageStart = index;
+				pageLength = Math.min(page.length, size - index);
+				for (int i = 0; i < pageLength; i++) {
+					page[i] = container.getIdByIndex(pageStart + i);
+				}
+			}
+			return page[index++ - pageStart];
+		}
+	}
+
+	private static class OrderedCursor extends ItemIdCursor {
+
+		private final Container.Ordered container;
+		private Object nextItemId;
+
+		OrderedCursor(Container.Ordered container) {
+			this.container = container;
+			this.nextItemId = container.firstItemId();
+		}
+
+		public boolean hasNext() {
+			return nextItemId != null;
+		}
+
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Object itemId = nextItemId;
+			nextItemId = container.nextItemId(itemId);
+			return itemId;
+		}
+	}
+
+	private static class CollectionCursor extends ItemIdCursor {
+
+		private final Iterator<?> itemIds;
+
+		CollectionCursor(Collection<?> itemIds) {
+			this.itemIds = itemIds.iterator();
+		}
+
+		public boolean hasNext() {
+			return itemIds.hasNext();
+		}
+
+		public Object next() {
+			return itemIds.next();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.util.AbstractInMemoryContainer;
+
+/**
+ * Look for several itemIds in a {@link Container} in a single pass.
+ *
+ * <p>
+ * When the {@link Container} is a lazy {@link Container.Indexed}, consecutive
+ * itemIds are checked with {@link Container.Indexed#getIdByIndex(int)} from
+ * the index of the first one (found with
+ * {@link Container.Indexed#indexOfId(Object)}), which lazy containers serve
+ * from the page they already loaded. Otherwise, and for in-memory containers
+ * whose {@link Container.Indexed#indexOfId(Object)} scans their list of
+ * itemIds, each itemId is checked with {@link Container#containsId(Object)}.
+ *
+ * @author Vincent Demeester
+ *
+ */
+class ItemIdsLookup {
+
+	final List<Object> presentItemIds = new ArrayList<Object>();
+	final List<Object> missingItemIds = new ArrayList<Object>();
+
+	private ItemIdsLookup() {
+	}
+
+	/**
+	 * @param container
+	 *            the {@link Container} itself (not a proxy of it).
+	 * @return {@code true} if the itemIds of the given {@link Container} are
+	 *         better looked up by index than with
+	 *         {@link Container#containsId(Object)}.
+	 */
+	static boolean looksUpByIndex(Container container) {
+		return container instanceof Container.Indexed
+				&& !(container instanceof AbstractInMemoryContainer)
+				&& !(container instanceof ContainerSnapshot);
+	}
+
+	/**
+	 * @param container
+	 *            the {@link Container} to look into.
+	 * @param byIndex
+	 *            {@code true} to look the itemIds up by index, see
+	 *            {@link #looksUpByIndex(Container)}.
+	 * @param session
+	 *            the {@link ContainerSession} giving the size of the
+	 *            container.
+	 * @param itemIds
+	 *            the itemIds to look for.
+	 * @return the present and missing itemIds, in the given order.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if one of the given itemIds is {@code null}.
+	 */
+	static ItemIdsLookup lookup(Container container, boolean byIndex,
+			ContainerSession session, Iterable<?> itemIds) {
+		ItemIdsLookup lookup = new ItemIdsLookup();
+		Container.Indexed indexed = byIndex ? (Container.Indexed) container
+				: null;
+		int size = indexed == null ? 0 : session.size();
+		int nextIndex = -1;
+		for (Object itemId : itemIds) {
+			if (itemId == null) {
+				throw new IllegalArgumentException(
+						"The itemId to look for should not be null");
+			}
+			boolean present;
+			if (indexed == null) {
+				present = container.containsId(itemId);
+			} else if (nextIndex >= 0 && nextIndex < size
+					&& itemId.equals(indexed.getIdByIndex(nextIndex))) {
+				present = true;
+				nextIndex++;
+			} else {
+				int index = indexed.indexOfId(itemId);
+				present = index >= 0;
+				nextIndex = present ? index + 1 : -1;
+			}
+			if (present) {
+				lookup.presentItemIds.add(itemId);
+			} else {
+				lookup.missingItemIds.add(itemId);
+			}
+		}
+		return lookup;
+	}
+}
@@ -0,0 +1,69 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compare the values of several properties of two items, the way
+ * {@link com.vaadin.data.Container.Sortable#sort(Object[], boolean[])} orders
+ * them: property by property, with the {@link Comparator} given for a property
+ * or else the natural order of the values, {@code null} being smaller than any
+ * other value.
+ * 
+ * @author Vincent Demeester
+ * 
+ */
+class PropertyValuesComparator implements Comparator<Object[]> {
+
+	private final List<Comparator<Object>> comparators;
+	private final boolean[] ascending;
+
+	/**
+	 * @param propertyIds
+	 *            the propertyIds to compare, in order of precedence.
+	 * @param ascending
+	 *            the direction of each propertyId.
+	 * @param comparators
+	 *            the {@link Comparator} to use for some propertyIds, might be
+	 *            empty.
+	 */
+	@SuppressWarnings("unchecked")
+	PropertyValuesComparator(Object[] propertyIds, boolean[] ascending,
+			Map<Object, Comparator<?>> comparators) {
+		this.ascending = ascending;
+		this.comparators = new ArrayList<Comparator<Object>>(
+				propertyIds.length);
+		for (Object propertyId : propertyIds) {
+			this.comparators.add((Comparator<Object>) comparators
+					.get(propertyId));
+		}
+	}
+
+	public int compare(Object[] values, Object[] otherValues) {
+		for (int i = 0; i < comparators.size(); i++) {
+			int result = compare(i, values[i], otherValues[i]);
+			if (result != 0) {
+				return ascending[i] ? result : -result;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the comparison of two values of the propertyId at the given
+	 *         index, in ascending order.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	int compare(int index, Object value, Object otherValue) {
+		if (value == null || otherValue == null) {
+			return value == otherValue ? 0 : value == null ? -1 : 1;
+		}
+		Comparator<Object> comparator = comparators.get(index);
+		if (comparator != null) {
+			return comparator.compare(value, otherValue);
+		}
+		return ((Comparable) value).compareTo(otherValue);
+	}
+}
@@ -0,0 +1,314 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.data.Container;
+
+/**
+ * Reference sort of the items of a {@link Container}, to check the order
+ * given by {@link Container.Sortable#sort(Object[], boolean[])}.
+ *
+ * <p>
+ * The sort keys are read once, column by column. A column whose values are
+ * all integers ({@link Long}, {@link Integer}, {@link Short}, {@link Byte})
+ * or all floating-point numbers ({@link Double}, {@link Float}), without a
+ * specific {@link Comparator}, is kept in a primitive array only, its values
+ * being boxed again when they are reported; the other columns are compared
+ * like {@link PropertyValuesComparator} does. The rows are then
+ * sorted with a merge sort of their indexes, which is stable: equal rows keep
+ * their original order.
+ *
+ * @author Vincent Demeester
+ *
+ */
+final class ReferenceSort {
+
+	private final List<Object> itemIds;
+	private final Column[] columns;
+	private final boolean[] ascending;
+	private Map<Object, Integer> rows;
+
+	private ReferenceSort(List<Object> itemIds, Column[] columns,
+			boolean[] ascending) {
+		this.itemIds = itemIds;
+		this.columns = columns;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * Read the sort keys of the items of the given {@link Container}, in
+	 * their current order.
+	 *
+	 * @param container
+	 *            the {@link Container} to read.
+	 * @param propertyIds
+	 *            the propertyIds to sort by, in order of precedence.
+	 * @param ascending
+	 *            the direction of each propertyId.
+	 * @param comparators
+	 *            the {@link Comparator} to use for some propertyIds, might be
+	 *            empty.
+	 * @param pageSize
+	 *            the number of itemIds read at once from a
+	 *            {@link Container.Indexed}.
+	 * @return the {@link ReferenceSort} of the items.
+	 */
+	static ReferenceSort read(Container container, Object[] propertyIds,
+			boolean[] ascending, Map<Object, Comparator<?>> comparators,
+			int pageSize) {
+		List<Object> itemIds = new ArrayList<Object>();
+		for (Iterator<Object> cursor = ItemIdCursor.over(container, pageSize); cursor
+				.hasNext();) {
+			itemIds.add(cursor.next());
+		}
+		PropertyValuesComparator comparator = new PropertyValuesComparator(
+				propertyIds, ascending, comparators);
+		Column[] columns = new Column[propertyIds.length];
+		for (int k = 0; k < propertyIds.length; k++) {
+			Object[] values = new Object[itemIds.size()];
+			for (int row = 0; row < values.length; row++) {
+				values[row] = ContainerDiff.valueOf(container,
+						itemIds.get(row), propertyIds[k]);
+			}
+			columns[k] = comparators.containsKey(propertyIds[k]) ? new ObjectColumn(
+					values, comparator, k) : Column.of(values, comparator, k);
+		}
+		return new ReferenceSort(itemIds, columns, ascending);
+	}
+
+	/**
+	 * @return the rows (indexes in the original order) sorted by the keys,
+	 *         equal rows being in their original order.
+	 */
+	int[] sortedRows() {
+		int[] sorted = new int[itemIds.size()];
+		for (int row = 0; row < sorted.length; row++) {
+			sorted[row] = row;
+		}
+		mergeSort(sorted, new int[sorted.length], 0, sorted.length);
+		return sorted;
+	}
+
+	private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(rows, buffer, from, middle);
+		mergeSort(rows, buffer, middle, to);
+		if (compareRows(rows[middle - 1], rows[middle]) <= 0) {
+			return;
+		}
+		System.arraycopy(rows, from, buffer, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to
+					|| (left < middle && compareRows(buffer[left],
+							buffer[right]) <= 0)) {
+				rows[i] = buffer[left++];
+			} else {
+				rows[i] = buffer[right++];
+			}
+		}
+	}
+
+	/**
+	 * @return a negative number, zero or a positive number if the keys of the
+	 *         first row come before, are equal to or come after the keys of
+	 *         the second one.
+	 */
+	int compareRows(int row, int otherRow) {
+		for (int k = 0; k < columns.length; k++) {
+			int result = columns[k].compare(row, otherRow);
+			if (result != 0) {
+				return ascending[k] ? result : -result;
+			}
+		}
+		return 0;
+	}
+
+	int size() {
+		return itemIds.size();
+	}
+
+	Object itemId(int row) {
+		return itemIds.get(row);
+	}
+
+	/**
+	 * @return the row of the given itemId, or -1 if it was not in the
+	 *         {@link Container}.
+	 */
+	int rowOf(Object itemId) {
+		if (rows == null) {
+			rows = new HashMap<Object, Integer>(itemIds.size() * 4 / 3 + 1);
+			for (int row = 0; row < itemIds.size(); row++) {
+				rows.put(itemIds.get(row), row);
+			}
+		}
+		Integer row = rows.get(itemId);
+		return row == null ? -1 : row;
+	}
+
+	/**
+	 * @return the sort keys of the given row.
+	 */
+	List<Object> keys(int row) {
+		List<Object> keys = new ArrayList<Object>(columns.length);
+		for (Column column : columns) {
+			keys.add(column.value(row));
+		}
+		return keys;
+	}
+
+	private abstract static class Column {
+
+		static Column of(Object[] values, PropertyValuesComparator comparator,
+				int index) {
+			Class<?> type = null;
+			for (Object value : values) {
+				if (value == null) {
+					continue;
+				}
+				if (type == null) {
+					type = value.getClass();
+				} else if (type != value.getClass()) {
+					return new ObjectColumn(values, comparator, index);
+				}
+			}
+			if (type == Long.class || type == Integer.class
+					|| type == Short.class || type == Byte.class) {
+				return new LongColumn(values, type);
+			}
+			if (type == Double.class || type == Float.class) {
+				return new DoubleColumn(values, type);
+			}
+			return new ObjectColumn(values, comparator, index);
+		}
+
+		/** {@code null} comes before any other value. */
+		abstract int compare(int row, int otherRow);
+
+		abstract Object value(int row);
+	}
+
+	private static class LongColumn extends Column {
+
+		private final long[] values;
+		private final BitSet nulls = new BitSet();
+		/** The class of the values, all the same. */
+		private final Class<?> type;
+
+		LongColumn(Object[] boxed, Class<?> type) {
+			this.type = type;
+			this.values = new long[boxed.length];
+			for (int row = 0; row < boxed.length; row++) {
+				if (boxed[row] == null) {
+					nulls.set(row);
+				} else {
+					values[row] = ((Number) boxed[row]).longValue();
+				}
+			}
+		}
+
+		@Override
+		int compare(int row, int otherRow) {
+			boolean isNull = nulls.get(row);
+			boolean otherIsNull = nulls.get(otherRow);
+			if (isNull || otherIsNull) {
+				return isNull == otherIsNull ? 0 : isNull ? -1 : 1;
+			}
+			long value = values[row];
+			long otherValue = values[otherRow];
+			return value < otherValue ? -1 : value == otherValue ? 0 : 1;
+		}
+
+		@Override
+		Object value(int row) {
+			if (nulls.get(row)) {
+				return null;
+			}
+			long value = values[row];
+			if (type == Integer.class) {
+				return (int) value;
+			}
+			if (type == Short.class) {
+				return (short) value;
+			}
+			if (type == Byte.class) {
+				return (byte) value;
+			}
+			return value;
+		}
+	}
+
+	private static class DoubleColumn extends Column {
+
+		private final double[] values;
+		private final BitSet nulls = new BitSet();
+		/** The class of the values, all the same. */
+		private final Class<?> type;
+
+		DoubleColumn(Object[] boxed, Class<?> type) {
+			this.type = type;
+			this.values = new double[boxed.length];
+			for (int row = 0; row < boxed.length; row++) {
+				if (boxed[row] == null) {
+					nulls.set(row);
+				} else {
+					values[row] = ((Number) boxed[row]).doubleValue();
+				}
+			}
+		}
+
+		@Override
+		int compare(int row, int otherRow) {
+			boolean isNull = nulls.get(row);
+			boolean otherIsNull = nulls.get(otherRow);
+			if (isNull || otherIsNull) {
+				return isNull == otherIsNull ? 0 : isNull ? -1 : 1;
+			}
+			return Double.compare(values[row], values[otherRow]);
+		}
+
+		@Override
+		Object value(int row) {
+			if (nulls.get(row)) {
+				return null;
+			}
+			double value = values[row];
+			return type == Float.class ? (Object) (float) value : value;
+		}
+	}
+
+	private static class ObjectColumn extends Column {
+
+		private final Object[] values;
+		private final PropertyValuesComparator comparator;
+		private final int index;
+
+		ObjectColumn(Object[] values, PropertyValuesComparator comparator,
+				int index) {
+			this.values = values;
+			this.comparator = comparator;
+			this.index = index;
+		}
+
+		@Override
+		int compare(int row, int otherRow) {
+			return comparator.compare(index, values[row], values[otherRow]);
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+	}
+}
@@ -0,0 +1,434 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.xgbi.assertj.vaadin.api.FailureReport;
+
+import com.vaadin.data.Container;
+
+/**
+ * Golden file of the content of a {@link Container}: its propertyIds, their
+ * types, its itemIds and its cells, in the order of the {@link Container}.
+ *
+ * <p>
+ * The file is binary and deterministic: a header ({@code AJVS} and a version),
+ * the propertyIds with the names of their types, then a record per item (the
+ * itemId followed by a cell per property) and an end marker with the number
+ * of items. Each record starts with a one-byte tag, and each value is a
+ * one-byte tag followed by its encoding:
+ * {@link String}s in UTF-8, {@link Integer}, {@link Long}, {@link Double},
+ * {@link Boolean} and {@link Date} values in binary, any other value as the
+ * name of its class and its {@code toString()}.
+ *
+ * <p>
+ * A {@link Container} is compared to a file while reading it through memory
+ * mapped windows of {@value #WINDOW_SIZE} bytes: only the current item of the
+ * file is decoded, the expected content is never loaded as a whole. The
+ * differences of itemIds are reported by row (the position of the item, from
+ * 0), the differences of cells by itemId.
+ *
+ * @author Vincent Demeester
+ *
+ */
+final class SnapshotFile {
+
+	static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+	private static final int MAGIC = 0x414A5653;
+	private static final int VERSION = 1;
+
+	private static final String DIFFERENCES = "differences";
+
+	private static final byte END = 0;
+	private static final byte ITEM = 1;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte BOOLEAN = 5;
+	private static final byte DATE = 6;
+	private static final byte OTHER = 7;
+
+	private SnapshotFile() {
+	}
+
+	/**
+	 * Write the content of the given {@link Container} to the given file.
+	 *
+	 * @param container
+	 *            the {@link Container} to write.
+	 * @param propertyIds
+	 *            the propertyIds of the {@link Container}.
+	 * @param itemIds
+	 *            the itemIds of the {@link Container}, in order.
+	 * @param file
+	 *            the file to (over)write; its parent directories are created
+	 *            if needed.
+	 * @throws IOException
+	 *             if the file can not be written.
+	 */
+	static void write(Container container, Collection<?> propertyIds,
+			Iterator<Object> itemIds, File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Could not create the directory " + parent);
+		}
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), 64 * 1024));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(propertyIds.size());
+			for (Object propertyId : propertyIds) {
+				writeValue(out, propertyId);
+				Class<?> type = container.getType(propertyId);
+				writeString(out, type == null ? "" : type.getName());
+			}
+			int count = 0;
+			while (itemIds.hasNext()) {
+				Object itemId = itemIds.next();
+				out.writeByte(ITEM);
+				writeValue(out, itemId);
+				for (Object propertyId : propertyIds) {
+					writeValue(out,
+							ContainerDiff.valueOf(container, itemId, propertyId));
+				}
+				count++;
+			}
+			out.writeByte(END);
+			out.writeInt(count);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Compare the content of the given {@link Container} to the given file.
+	 *
+	 * @param container
+	 *            the {@link Container} to compare.
+	 * @param propertyIds
+	 *            the propertyIds of the {@link Container}.
+	 * @param itemIds
+	 *            the itemIds of the {@link Container}, in order.
+	 * @param file
+	 *            a file written by
+	 *            {@link #write(Container, Collection, Iterator, File)}.
+	 * @return the differences between the file and the {@link Container}.
+	 * @throws IOException
+	 *             if the file can not be read, is not a snapshot, or is
+	 *             corrupt or truncated.
+	 */
+	static FailureReport compare(Container container,
+			Collection<?> propertyIds, Iterator<Object> itemIds, File file)
+			throws IOException {
+		return compare(container, propertyIds, itemIds, file, WINDOW_SIZE);
+	}
+
+	// visible for test
+	static FailureReport compare(Container container,
+			Collection<?> propertyIds, Iterator<Object> itemIds, File file,
+			int windowSize) throws IOException {
+		FailureReport differences = new FailureReport().category(DIFFERENCES);
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			MappedInput in = new MappedInput(file,
+					randomAccessFile.getChannel(), windowSize);
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException(file + " is not a container snapshot");
+			}
+			if (!compareProperties(container, propertyIds, in, differences)) {
+				return differences;
+			}
+			Object[] properties = propertyIds.toArray();
+			int row = 0;
+			for (byte tag = in.readByte(); tag != END; tag = in.readByte()) {
+				if (tag != ITEM) {
+					throw in.corrupt("unknown record tag " + tag + " at row "
+							+ row);
+				}
+				Object expectedItemId = in.readValue();
+				if (!itemIds.hasNext()) {
+					differences.add(DIFFERENCES, "row %s: missing itemId <%s>",
+							row, expectedItemId);
+					skipCells(in, properties.length);
+				} else {
+					Object itemId = itemIds.next();
+					if (!sameValue(expectedItemId, itemId)) {
+						differences.add(DIFFERENCES,
+								"row %s: expected itemId <%s> but was <%s>",
+								row, expectedItemId, itemId);
+						skipCells(in, properties.length);
+					} else {
+						compareCells(container, itemId, properties, in,
+								differences);
+					}
+				}
+				row++;
+			}
+			int count = in.readInt();
+			if (count != row) {
+				throw in.corrupt("it ends after " + row
+						+ " items but records " + count);
+			}
+			if (!in.isAtEnd()) {
+				throw in.corrupt("unexpected data after the end marker");
+			}
+			for (; itemIds.hasNext(); row++) {
+				differences.add(DIFFERENCES, "row %s: unexpected itemId <%s>",
+						row, itemIds.next());
+			}
+			return differences;
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	private static boolean compareProperties(Container container,
+			Collection<?> propertyIds, MappedInput in, FailureReport differences)
+			throws IOException {
+		int count = in.readInt();
+		List<Object> expectedPropertyIds = new ArrayList<Object>(count);
+		List<String> expectedTypes = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			expectedPropertyIds.add(in.readValue());
+			expectedTypes.add(in.readString());
+		}
+		List<String> types = new ArrayList<String>(count);
+		for (Object propertyId : propertyIds) {
+			Class<?> type = container.getType(propertyId);
+			types.add(type == null ? "" : type.getName());
+		}
+		if (!new ArrayList<Object>(propertyIds).equals(expectedPropertyIds)) {
+			differences.add(DIFFERENCES,
+					"expected the propertyIds %s but were %s",
+					expectedPropertyIds, propertyIds);
+			return false;
+		}
+		if (!types.equals(expectedTypes)) {
+			differences.add(DIFFERENCES,
+					"expected the property types %s but were %s",
+					expectedTypes, types);
+			return false;
+		}
+		return true;
+	}
+
+	private static void compareCells(Container container, Object itemId,
+			Object[] propertyIds, MappedInput in, FailureReport differences)
+			throws IOException {
+		for (Object propertyId : propertyIds) {
+			Object expected = in.readValue();
+			Object actual = ContainerDiff.valueOf(container, itemId, propertyId);
+			if (!sameValue(expected, actual)) {
+				differences.add(DIFFERENCES,
+						"item [%s]: expected <%s> for the property [%s] but was <%s>",
+						itemId, expected, propertyId, actual);
+			}
+		}
+	}
+
+	private static void skipCells(MappedInput in, int count)
+			throws IOException {
+		for (int i = 0; i < count; i++) {
+			in.readValue();
+		}
+	}
+
+	/**
+	 * @return {@code true} if the given value, read from a file, is the given
+	 *         actual value.
+	 */
+	private static boolean sameValue(Object expected, Object actual) {
+		if (expected instanceof OtherValue) {
+			OtherValue other = (OtherValue) expected;
+			return actual != null
+					&& actual.getClass().getName().equals(other.type)
+					&& actual.toString().equals(other.text);
+		}
+		if (expected instanceof Date) {
+			return actual instanceof Date
+					&& ((Date) expected).getTime() == ((Date) actual).getTime();
+		}
+		return expected == null ? actual == null : expected.equals(actual);
+	}
+
+	private static void writeValue(DataOutputStream out, Object value)
+			throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString(out, (String) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeLong(Double.doubleToLongBits((Double) value));
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value.getClass() == Date.class) {
+			out.writeByte(DATE);
+			out.writeLong(((Date) value).getTime());
+		} else {
+			out.writeByte(OTHER);
+			writeString(out, value.getClass().getName());
+			writeString(out, value.toString());
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value)
+			throws IOException {
+		byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * A value of another type than the ones encoded in binary.
+	 */
+	private static class OtherValue {
+
+		final String type;
+		final String text;
+
+		OtherValue(String type, String text) {
+			this.type = type;
+			this.text = text;
+		}
+
+		@Override
+		public String toString() {
+			return text;
+		}
+	}
+
+	/**
+	 * Sequential reader of a file mapped in memory by windows.
+	 */
+	private static class MappedInput {
+
+		private final File file;
+		private final FileChannel channel;
+		private final long size;
+		private final int windowSize;
+		private MappedByteBuffer window;
+		private long windowStart;
+
+		MappedInput(File file, FileChannel channel, int windowSize)
+				throws IOException {
+			this.file = file;
+			this.channel = channel;
+			this.size = channel.size();
+			this.windowSize = windowSize;
+			map(0, 0);
+		}
+
+		private void map(long position, int minimum) throws IOException {
+			windowStart = position;
+			window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(Math.max(windowSize, minimum), size - position));
+		}
+
+		private void ensure(int length) throws IOException {
+			if (window.remaining() < length) {
+				long position = windowStart + window.position();
+				if (size - position < length) {
+					throw new IOException(file + " is truncated");
+				}
+				map(position, length);
+			}
+		}
+
+		boolean isAtEnd() {
+			return windowStart + window.position() == size;
+		}
+
+		IOException corrupt(String reason) {
+			return new IOException(file + " is corrupt: " + reason);
+		}
+
+		byte readByte() throws IOException {
+			ensure(1);
+			return window.get();
+		}
+
+		int readInt() throws IOException {
+			ensure(4);
+			return window.getInt();
+		}
+
+		long readLong() throws IOException {
+			ensure(8);
+			return window.getLong();
+		}
+
+		String readString() throws IOException {
+			int length = readInt();
+			if (length < 0 || length > size - windowStart - window.position()) {
+				throw corrupt("invalid string length " + length);
+			}
+			byte[] bytes = new byte[length];
+			int read = 0;
+			while (read < length) {
+				ensure(1);
+				int chunk = Math.min(length - read, window.remaining());
+				window.get(bytes, read, chunk);
+				read += chunk;
+			}
+			return decode(bytes);
+		}
+
+		Object readValue() throws IOException {
+			byte tag = readByte();
+			switch (tag) {
+			case NULL:
+				return null;
+			case STRING:
+				return readString();
+			case INTEGER:
+				return readInt();
+			case LONG:
+				return readLong();
+			case DOUBLE:
+				return Double.longBitsToDouble(readLong());
+			case BOOLEAN:
+				return readByte() != 0;
+			case DATE:
+				return new Date(readLong());
+			case OTHER:
+				return new OtherValue(readString(), readString());
+			default:
+				throw corrupt("unknown value tag " + tag);
+			}
+		}
+
+		private static String decode(byte[] bytes) throws IOException {
+			try {
+				return new String(bytes, "UTF-8");
+			} catch (UnsupportedEncodingException e) {
+				throw new IOException(e.getMessage());
+			}
+		}
+	}
+}
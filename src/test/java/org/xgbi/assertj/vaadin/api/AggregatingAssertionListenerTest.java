@@ -0,0 +1,149 @@
+package org.xgbi.assertj.vaadin.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xgbi.assertj.vaadin.api.AggregatingAssertionListener.Statistics;
+import org.xgbi.assertj.vaadin.api.container.ContainerAssert;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.util.IndexedContainer;
+import com.vaadin.ui.Button;
+
+public class AggregatingAssertionListenerTest {
+
+	private AggregatingAssertionListener listener;
+
+	@Before
+	public void register() {
+		listener = new AggregatingAssertionListener();
+		// the tests of other classes may run at the same time
+		AssertionListeners.registerForCurrentThread(listener);
+	}
+
+	@After
+	public void unregister() {
+		AssertionListeners.unregisterForCurrentThread(listener);
+	}
+
+	@Test
+	public void listener_should_count_the_container_calls_of_each_assertion() {
+		IndexedContainer container = newContainer();
+		assertThat(container).hasSize(2).hasSize(2).hasItemId("one")
+				.same(container);
+		try {
+			assertThat(container).hasItemId("three");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			// expected
+		}
+		List<Statistics> slowest = listener.slowest(10);
+		assertEquals(3, slowest.size());
+		Statistics hasSize = find(slowest, "ContainerAssert.hasSize");
+		assertEquals(2, hasSize.getCount());
+		assertEquals(2L, hasSize.getCallCount("size"));
+		Statistics hasItemId = find(slowest, "ContainerAssert.hasItemId");
+		assertEquals(2, hasItemId.getCount());
+		assertEquals(1, hasItemId.getFailures());
+		assertEquals(2L, hasItemId.getCallCount("containsId"));
+		assertEquals(0, find(slowest, "ContainerAssert.same").getFailures());
+	}
+
+	@Test
+	public void listener_should_not_replace_the_actual_container() {
+		IndexedContainer container = newContainer();
+		assertThat(container).isSameAs(container).isEqualTo(container)
+				.isInstanceOf(IndexedContainer.class);
+		assertThat(container).same(container).hasSize(2);
+		assertEquals(1L, find(listener.slowest(10), "ContainerAssert.hasSize")
+				.getCallCount("size"));
+	}
+
+	@Test
+	public void listener_should_be_notified_of_the_assertions_failing_with_an_exception() {
+		try {
+			assertThat((Container) null).hasSize(2);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			// expected
+		}
+		ContainerAssert containerAssert = assertThat(newContainer());
+		try {
+			containerAssert.hasItemId(null);
+			fail("should throw an IllegalArgumentException.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		IndexedContainer broken = new IndexedContainer() {
+			@Override
+			public int size() {
+				throw new IllegalStateException("broken");
+			}
+		};
+		ContainerAssert brokenAssert = assertThat(broken);
+		try {
+			brokenAssert.hasSize(2);
+			fail("should throw an IllegalStateException.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		// reported without waiting for another assertion on the same object
+		List<Statistics> slowest = listener.slowest(10);
+		assertEquals(2, find(slowest, "ContainerAssert.hasSize")
+				.getFailures());
+		assertEquals(1, find(slowest, "ContainerAssert.hasItemId")
+				.getFailures());
+		brokenAssert.hasNotItemId("none");
+		assertEquals(0, find(listener.slowest(10),
+				"ContainerAssert.hasNotItemId").getFailures());
+	}
+
+	@Test
+	public void nested_assertions_should_be_reported_as_the_calling_one() {
+		Button button = new Button();
+		button.setEnabled(false);
+		assertThat(button).isDisabled();
+		List<Statistics> slowest = listener.slowest(10);
+		assertEquals(1, slowest.size());
+		assertEquals("ComponentAssert.isDisabled", slowest.get(0)
+				.getAssertion());
+	}
+
+	@Test
+	public void writeCsv_should_write_a_line_per_assertion() throws Exception {
+		assertThat(newContainer()).hasSize(2);
+		StringWriter csv = new StringWriter();
+		listener.writeCsv(csv, 10);
+		String[] lines = csv.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("assertion,count,failures,total_ms,max_ms,mean_us,size",
+				lines[0]);
+		assertTrue(lines[1], lines[1].matches(
+				"ContainerAssert\\.hasSize,1,0,[0-9.]+,[0-9.]+,[0-9.]+,1"));
+	}
+
+	private static Statistics find(List<Statistics> statistics,
+			String assertion) {
+		for (Statistics current : statistics) {
+			if (current.getAssertion().equals(assertion)) {
+				return current;
+			}
+		}
+		throw new AssertionError("No statistics for " + assertion);
+	}
+
+	private static IndexedContainer newContainer() {
+		IndexedContainer container = new IndexedContainer();
+		container.addItem("one");
+		container.addItem("two");
+		return container;
+	}
+}
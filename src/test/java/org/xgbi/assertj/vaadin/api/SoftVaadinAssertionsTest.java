@@ -0,0 +1,100 @@
+package org.xgbi.assertj.vaadin.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.assertj.core.api.Condition;
+import org.junit.Test;
+
+import com.vaadin.data.Item;
+import com.vaadin.data.util.ContainerOrderedWrapper;
+import com.vaadin.data.util.IndexedContainer;
+import com.vaadin.data.util.filter.Compare;
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.HorizontalLayout;
+import com.vaadin.ui.Label;
+
+public class SoftVaadinAssertionsTest {
+
+	@Test
+	public void assertAll_should_pass_if_no_assertion_failed() {
+		SoftVaadinAssertions softly = new SoftVaadinAssertions();
+		softly.assertThat(new Button("Title")).hasCaption("Title").isEnabled();
+		softly.assertThat(new IndexedContainer()).isEmpty();
+		softly.assertAll();
+	}
+
+	@Test
+	public void assertAll_should_report_every_failure_at_once() {
+		HorizontalLayout buttons = new HorizontalLayout();
+		Button save = new Button("Save");
+		save.setEnabled(false);
+		buttons.addComponent(save);
+		IndexedContainer container = new IndexedContainer();
+		container.addItem("one");
+
+		SoftVaadinAssertions softly = new SoftVaadinAssertions();
+		softly.assertThat(new Label()).hasCaption("Title").isNotEnabled();
+		softly.assertThat(buttons).allDescendantsAreEnabled()
+				.findByCaption("Save").hasStyleName("primary");
+		softly.assertThat(container).isEmpty().hasItemId("one");
+		assertEquals(5, softly.failureMessages().size());
+		try {
+			softly.assertAll();
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("The following 5 assertions failed:\n"
+					+ "1) Component <> should have the caption <'Title'> but was null.\n"
+					+ "2) The component <> should not be enabled, but was.\n"
+					+ "3) Expected all the descendants to be 'enabled', but found disabled descendants [HorizontalLayout/Button[0]].\n"
+					+ "4) Component <false> should have the style <'primary'> but was <''>.\n"
+					+ "5) Expected to be empty (no items).", e.getMessage());
+		}
+	}
+
+	@Test
+	public void whenFiltered_should_be_collected_if_the_container_is_not_filterable() {
+		IndexedContainer container = new IndexedContainer();
+		container.addItem("one");
+		ContainerOrderedWrapper wrapper = new ContainerOrderedWrapper(container);
+
+		SoftVaadinAssertions softly = new SoftVaadinAssertions();
+		softly.assertThat(wrapper).whenFiltered(new Compare.Equal("id", 1))
+				.containsExactlyItemsMatching(new Condition<Item>() {
+					@Override
+					public boolean matches(Item item) {
+						return true;
+					}
+				});
+		assertEquals(
+				"[Expected container to be filterable, but was a <'com.vaadin.data.util.ContainerOrderedWrapper'>.]",
+				softly.failureMessages().toString());
+	}
+
+	@Test
+	public void inherited_checks_should_be_collected() {
+		Button button = new Button("Save");
+
+		SoftVaadinAssertions softly = new SoftVaadinAssertions();
+		softly.assertThat(button).isEqualTo(new Label()).isSameAs(new Label())
+				.isInstanceOf(Label.class).is(new Condition<Component>("a label") {
+					@Override
+					public boolean matches(Component component) {
+						return component instanceof Label;
+					}
+				}).hasCaption("Save");
+		assertEquals(4, softly.failureMessages().size());
+		softly.assertThat(button).isSameAs(button).isInstanceOf(Button.class);
+		assertEquals(4, softly.failureMessages().size());
+	}
+
+	@Test
+	public void hasParent_should_record_a_single_failure_if_there_is_no_parent() {
+		SoftVaadinAssertions softly = new SoftVaadinAssertions();
+		softly.assertThat(new Button("Save")).hasParent(new HorizontalLayout());
+		assertEquals(
+				"[Component <false> should have a parent but had none.]",
+				softly.failureMessages().toString());
+	}
+}
@@ -10,6 +10,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.xgbi.assertj.vaadin.api.BaseTest;
 
+import com.vaadin.event.FieldEvents.FocusEvent;
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Button.ClickEvent;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.Label;
 
@@ -44,4 +47,35 @@ public class ComponentAssertTest extends BaseTest {
 		actual.setReadOnly(true);
 		assertThat(actual).isReadOnly();
 	}
+
+	@Test
+	public void listenerAssertionsShouldAcceptAnEventTypeOrAListenerInterface() {
+		Button button = new Button("Save");
+		button.addListener(new Button.ClickListener() {
+			public void buttonClick(ClickEvent event) {
+			}
+		});
+		assertThat(button).hasListener(ClickEvent.class)
+				.hasListener(Button.ClickListener.class)
+				.hasListenerCount(Button.ClickListener.class, 1)
+				.hasNoListenerOfType(FocusEvent.class);
+	}
+
+	@Test
+	public void hasListenerCountShouldFailIfTheCountDiffers() {
+		Button button = new Button("Save");
+		try {
+			assertThat(button).hasListenerCount(Button.ClickListener.class, 2);
+			fail("Should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected <2> listeners of event type <com.vaadin.ui.Button.ClickEvent>, but found <0>.",
+					e.getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void hasListenerShouldThrowIllegalArgumentExceptionIfTheTypeIsNotAListener() {
+		assertThat(new Button()).hasListener(String.class);
+	}
 }
@@ -0,0 +1,43 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.xgbi.assertj.vaadin.api.VaadinCondition;
+
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Component;
+
+public class ComponentConditionsTest {
+
+	@Test
+	public void state_conditions_should_match_without_throwing() {
+		Button button = new Button("Save");
+		button.setEnabled(false);
+		assertFalse(ComponentConditions.enabled().matches(button));
+		assertTrue(ComponentConditions.disabled().matches(button));
+		assertTrue(ComponentConditions.visible().matches(button));
+		assertFalse(ComponentConditions.enabled().matches(null));
+	}
+
+	@Test
+	public void describing_a_condition_should_not_change_the_others() {
+		ComponentConditions.enabled().as("active");
+		assertEquals("enabled", ComponentConditions.enabled().toString());
+	}
+
+	@Test
+	public void failureMessage_should_be_the_one_of_the_assertion() {
+		Button button = new Button("Save");
+		button.setEnabled(false);
+		assertEquals("The component <false> should be enabled, but was not.",
+				ComponentConditions.enabled().failureMessage(button));
+		VaadinCondition<Component> caption = ComponentConditions.caption("Cancel");
+		assertFalse(caption.matches(button));
+		assertEquals("with the caption 'Cancel'", caption.toString());
+		assertEquals("Component <false> should have the caption <'Cancel'> but was <'Save'>.",
+				caption.failureMessage(button));
+	}
+}
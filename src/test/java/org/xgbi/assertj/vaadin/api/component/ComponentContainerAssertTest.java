@@ -0,0 +1,245 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Button.ClickEvent;
+import com.vaadin.ui.ComponentContainer;
+import com.vaadin.ui.HorizontalLayout;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.TextField;
+import com.vaadin.ui.VerticalLayout;
+
+public class ComponentContainerAssertTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void find_should_return_the_only_component_of_the_given_type() {
+		ComponentContainer actual = newForm();
+		assertThat(actual).find(TextField.class).hasCaption("Name");
+		assertThat(actual).find(HorizontalLayout.class).hasNoCaption();
+	}
+
+	@Test
+	public void find_should_throw_AssertionError_if_several_components_match() {
+		try {
+			assertThat(newForm()).find(Button.class);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to find exactly one component 'of type com.vaadin.ui.Button', but found <2>.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void findByCaption_should_look_into_nested_containers() {
+		ComponentContainerAssert form = assertThat(newForm());
+		form.findByCaption("Save").hasStyleName("primary");
+		form.findByDebugId("cancel").hasCaption("Cancel");
+		form.findByStyleName("primary").hasCaption("Save");
+	}
+
+	@Test
+	public void findByDebugId_should_throw_AssertionError_if_no_component_matches() {
+		try {
+			assertThat(newForm()).findByDebugId("unknown");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to find exactly one component 'with the debug id unknown', but found <0>.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void select_should_match_child_and_descendant_parts() {
+		ComponentContainerAssert form = assertThat(newForm());
+		form.select("VerticalLayout > HorizontalLayout > Button.primary[caption='Save']:enabled")
+				.hasCaption("Save");
+		form.select("VerticalLayout Button:disabled").hasCaption("Cancel");
+		form.select("#cancel").isDisabled();
+		form.hasSelectionCount("HorizontalLayout Button", 2)
+				.hasSelectionCount("VerticalLayout > Button", 0)
+				.hasSelectionCount("AbstractField", 3)
+				.hasSelectionCount("*", 5);
+	}
+
+	@Test
+	public void select_should_throw_IllegalArgumentException_if_selector_is_invalid() {
+		try {
+			assertThat(newForm()).select("Button[color='red']");
+			fail("should throw an IllegalArgumentException.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid selector <Button[color='red']>: unknown attribute color at position 12", e.getMessage());
+		}
+	}
+
+	@Test
+	public void allDescendants_assertions_should_pass_on_a_consistent_tree() {
+		VerticalLayout form = newForm();
+		((HorizontalLayout) form.getComponent(2)).getComponent(1).setEnabled(true);
+		assertThat(form).allDescendantsAreEnabled().noDescendantIsReadOnly()
+				.allDescendantsVisible();
+	}
+
+	@Test
+	public void allDescendantsAreEnabled_should_report_the_path_of_every_disabled_descendant() {
+		VerticalLayout form = newForm();
+		form.getComponent(0).setEnabled(false);
+		try {
+			assertThat(form).noDescendantIsReadOnly().allDescendantsAreEnabled();
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected all the descendants to be 'enabled', but found disabled descendants [VerticalLayout/Label[0], VerticalLayout/HorizontalLayout[2]/Button[1]].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void allDescendantsImmediate_should_throw_AssertionError_if_a_descendant_is_not_immediate() {
+		VerticalLayout form = newForm();
+		try {
+			assertThat(form).allDescendantsImmediate();
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected all the descendants to be 'immediate', but found not immediate descendants [VerticalLayout/Label[0], VerticalLayout/TextField[1], VerticalLayout/HorizontalLayout[2], VerticalLayout/HorizontalLayout[2]/Button[0], VerticalLayout/HorizontalLayout[2]/Button[1]].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void allDescendantsAreEnabled_should_only_report_the_first_paths() {
+		VerticalLayout form = new VerticalLayout();
+		for (int i = 0; i < 100; i++) {
+			Button button = new Button("Button " + i);
+			button.setEnabled(false);
+			form.addComponent(button);
+		}
+		try {
+			assertThat(form).allDescendantsAreEnabled();
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith(
+					"Expected all the descendants to be 'enabled', but found disabled descendants [VerticalLayout/Button[0], "));
+			assertTrue(e.getMessage(), e.getMessage().endsWith(
+					"VerticalLayout/Button[19], ... <80> more]."));
+		}
+	}
+
+	@Test
+	public void noDescendantHasMoreThan_should_report_the_leaking_descendants() {
+		VerticalLayout form = newForm();
+		Button save = (Button) ((HorizontalLayout) form.getComponent(2))
+				.getComponent(0);
+		for (int i = 0; i < 3; i++) {
+			save.addListener(new Button.ClickListener() {
+				public void buttonClick(ClickEvent event) {
+				}
+			});
+		}
+		assertThat(form).noDescendantHasMoreThan(3, Button.ClickListener.class);
+		try {
+			assertThat(form).noDescendantHasMoreThan(1, ClickEvent.class);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected no descendant to have more than <1> listeners of event type <com.vaadin.ui.Button.ClickEvent>, but found descendants with more listeners [VerticalLayout/HorizontalLayout[2]/Button[0] (3)].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void matchesTreeSnapshot_should_write_a_missing_snapshot_and_then_pass() {
+		File snapshot = new File(folder.getRoot(), "trees/form.tree");
+		assertThat(newForm()).matchesTreeSnapshot(snapshot);
+		assertEquals(true, snapshot.isFile());
+		assertThat(newForm()).matchesTreeSnapshot(snapshot);
+	}
+
+	@Test
+	public void matchesTreeSnapshot_should_report_the_changed_subtrees_only() {
+		File snapshot = new File(folder.getRoot(), "form.tree");
+		assertThat(newForm()).matchesTreeSnapshot(snapshot);
+		VerticalLayout form = newForm();
+		HorizontalLayout buttons = (HorizontalLayout) form.getComponent(2);
+		buttons.getComponent(0).setCaption("Submit");
+		buttons.addComponent(new Button("Help"));
+		try {
+			assertThat(form).matchesTreeSnapshot(snapshot);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected the component tree to match the snapshot <'"
+					+ snapshot.getPath()
+					+ "'>, but found differences ["
+					+ "VerticalLayout/HorizontalLayout[2]/Button[0]: expected <Button {caption='Save', styleName='primary', enabled, visible, readOnly=false, immediate=false, icon=null}> but was <Button {caption='Submit', styleName='primary', enabled, visible, readOnly=false, immediate=false, icon=null}>, "
+					+ "VerticalLayout/HorizontalLayout[2]/Button[2]: unexpected <Button {caption='Help', styleName='', enabled, visible, readOnly=false, immediate=false, icon=null}>].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void matchesTreeSnapshot_should_report_a_missing_component() {
+		File snapshot = new File(folder.getRoot(), "form.tree");
+		assertThat(newForm()).matchesTreeSnapshot(snapshot);
+		VerticalLayout form = newForm();
+		form.removeComponent(form.getComponent(1));
+		try {
+			assertThat(form).matchesTreeSnapshot(snapshot);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected the component tree to match the snapshot <'"
+					+ snapshot.getPath()
+					+ "'>, but found differences [VerticalLayout/TextField[1]: missing <TextField {caption='Name', styleName='', enabled, visible, readOnly=false, immediate=false, icon=null}>].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void matchesTreeSnapshot_should_compare_deep_trees() {
+		File snapshot = new File(folder.getRoot(), "deep.tree");
+		assertThat(newDeepTree(500, "Leaf")).matchesTreeSnapshot(snapshot);
+		assertThat(newDeepTree(500, "Leaf")).matchesTreeSnapshot(snapshot);
+		try {
+			assertThat(newDeepTree(500, "Changed")).matchesTreeSnapshot(
+					snapshot);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(
+					"/Button[0]: expected <Button {caption='Leaf'"));
+		}
+	}
+
+	private static VerticalLayout newDeepTree(int depth, String caption) {
+		VerticalLayout root = new VerticalLayout();
+		VerticalLayout parent = root;
+		for (int i = 0; i < depth; i++) {
+			VerticalLayout child = new VerticalLayout();
+			parent.addComponent(child);
+			parent = child;
+		}
+		parent.addComponent(new Button(caption));
+		return root;
+	}
+
+	static VerticalLayout newForm() {
+		VerticalLayout form = new VerticalLayout();
+		form.addComponent(new Label("Title"));
+		form.addComponent(new TextField("Name"));
+		HorizontalLayout buttons = new HorizontalLayout();
+		Button save = new Button("Save");
+		save.setStyleName("primary");
+		buttons.addComponent(save);
+		Button cancel = new Button("Cancel");
+		cancel.setDebugId("cancel");
+		cancel.setEnabled(false);
+		buttons.addComponent(cancel);
+		form.addComponent(buttons);
+		return form;
+	}
+}
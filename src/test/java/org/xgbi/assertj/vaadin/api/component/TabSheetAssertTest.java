@@ -0,0 +1,69 @@
+package org.xgbi.assertj.vaadin.api.component;
+
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.Test;
+
+import com.vaadin.ui.Label;
+import com.vaadin.ui.TabSheet;
+import com.vaadin.ui.TabSheet.Tab;
+
+public class TabSheetAssertTest {
+
+	@Test
+	public void hasTabs_should_pass_if_every_tab_matches() {
+		assertThat(newTabSheet()).hasTabCount(3).hasTabs(
+				tuple("Orders", true, true, false),
+				tuple("Customers", true, false, false),
+				tuple("Archive", false, true, true));
+	}
+
+	@Test
+	public void hasTabs_should_report_every_differing_tab() {
+		try {
+			assertThat(newTabSheet()).hasTabs(
+					tuple("Orders", true, true, true),
+					tuple("Customers", true, false, false));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected to have the tabs (caption, enabled, visible, closable) [('Orders', true, true, true), ('Customers', true, false, false)], but <2> differed: ['tab 0: expected ('Orders', true, true, true) but was ('Orders', true, true, false)', 'tab 2: unexpected ('Archive', false, true, true)'].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasSelectedTab_should_check_the_caption_of_the_selected_tab() {
+		TabSheet tabSheet = newTabSheet();
+		assertThat(tabSheet).hasSelectedTab("Orders");
+		tabSheet.getTab(2).setEnabled(true);
+		tabSheet.setSelectedTab(2);
+		try {
+			assertThat(tabSheet).hasSelectedTab("Orders");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected the tab 'Orders' to be selected, but the tab 'Archive' was.",
+					e.getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void hasTabs_should_throw_IllegalArgumentException_if_tabs_are_null() {
+		assertThat(newTabSheet()).hasTabs((Tuple[]) null);
+	}
+
+	private static TabSheet newTabSheet() {
+		TabSheet tabSheet = new TabSheet();
+		tabSheet.addTab(new Label("orders"), "Orders");
+		tabSheet.addTab(new Label("customers"), "Customers").setVisible(false);
+		Tab archive = tabSheet.addTab(new Label("archive"), "Archive");
+		archive.setEnabled(false);
+		archive.setClosable(true);
+		return tabSheet;
+	}
+}
@@ -0,0 +1,122 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+import com.vaadin.data.util.IndexedContainer;
+
+public class ColumnAssertTest {
+
+	@Test
+	public void column_should_pass_if_aggregates_are_the_expected_ones() {
+		Container actual = newContainer();
+		assertThat(actual).column("amount").hasSum(60).hasMin(0).hasMax(30L)
+				.hasAverage(20, 0.001).hasDistinctCount(2).hasNullCount(1);
+		assertThat(actual).column("price").hasSum(3.0).hasMax(1.5)
+				.hasNoNulls();
+		assertThat(actual).column("name").hasMin("a").hasMax("c")
+				.hasDistinctCount(3);
+	}
+
+	@Test
+	public void column_should_read_the_primitive_columns_of_a_snapshot() {
+		ContainerSnapshot actual = ContainerSnapshot.of(newContainer());
+		assertThat(actual).column("amount").hasSum(60L).hasMin(0)
+				.hasDistinctCount(2).hasNullCount(1);
+		assertThat(actual).column("price").hasSum(3.0).hasDistinctCount(4);
+	}
+
+	@Test
+	public void hasSum_should_throw_AssertionError_if_sum_differs() {
+		try {
+			assertThat(newContainer()).column("amount").hasSum(61);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected property ['amount'] to have a sum of [61], but was [60L]", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasSum_should_not_truncate_the_expected_sum() {
+		try {
+			assertThat(newContainer()).column("amount").hasSum(60.9);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected property ['amount'] to have a sum of [60.9], but was [60L]", e.getMessage());
+		}
+		assertThat(newContainer()).column("amount").hasSum(60.0).hasMin(0.0);
+	}
+
+	@Test
+	public void hasMax_should_not_truncate_the_expected_max() {
+		try {
+			assertThat(newContainer()).column("amount").hasMax(30.5);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected property ['amount'] to have a max of [30.5], but was [30L]", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasSum_should_not_overflow() {
+		Container container = new IndexedContainer();
+		container.addContainerProperty("amount", Long.class, null);
+		for (int i = 0; i < 3; i++) {
+			container.addItem(i).getItemProperty("amount")
+					.setValue(Long.MAX_VALUE);
+		}
+		BigInteger sum = BigInteger.valueOf(Long.MAX_VALUE).multiply(
+				BigInteger.valueOf(3));
+		assertThat(container).column("amount").hasSum(sum)
+				.hasAverage(Long.MAX_VALUE, 1e6);
+		try {
+			assertThat(container).column("amount").hasSum(Long.MAX_VALUE - 2);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected property ['amount'] to have a sum of [9223372036854775805L], but was [" + sum + "]", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasNoNulls_should_throw_AssertionError_if_column_has_nulls() {
+		try {
+			assertThat(newContainer()).column("amount").hasNoNulls();
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected property ['amount'] to have [0] null values, but had [1]", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasSum_should_throw_IllegalArgumentException_if_column_is_not_numeric() {
+		try {
+			assertThat(newContainer()).column("name").hasSum(1);
+			fail("should throw an IllegalArgumentException.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("The property name is not numeric", e.getMessage());
+		}
+	}
+
+	private static Container newContainer() {
+		Container container = new IndexedContainer();
+		container.addContainerProperty("amount", Integer.class, null);
+		container.addContainerProperty("price", Double.class, 0d);
+		container.addContainerProperty("name", String.class, null);
+		Object[][] rows = { { 0, 0d, "a" }, { 30, 0.5d, "b" }, { 30, 1d, "c" },
+				{ null, 1.5d, "a" } };
+		for (int i = 0; i < rows.length; i++) {
+			Item item = container.addItem(i);
+			item.getItemProperty("amount").setValue(rows[i][0]);
+			item.getItemProperty("price").setValue(rows[i][1]);
+			item.getItemProperty("name").setValue(rows[i][2]);
+		}
+		return container;
+	}
+}
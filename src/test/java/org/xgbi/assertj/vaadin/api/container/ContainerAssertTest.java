@@ -3,13 +3,33 @@ package org.xgbi.assertj.vaadin.api.container;
 import static org.junit.Assert.*;
 import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Condition;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xgbi.assertj.vaadin.api.FailureReport;
 
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
 import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+import com.vaadin.data.util.BeanItemContainer;
+import com.vaadin.data.util.DefaultItemSorter;
 import com.vaadin.data.util.IndexedContainer;
+import com.vaadin.data.util.filter.Compare;
 
 public class ContainerAssertTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void isEmpty_should_throw_AssertionError_if_actual_is_null() {
 		Container actual = null;
@@ -89,7 +109,7 @@ public class ContainerAssertTest {
 			assertThat(actual).hasNoProperties();
 			fail("should throw an AssertionError.");
 		} catch (AssertionError e) {
-			assertEquals("Expected to have no properties, but had [['test']].", e.getMessage());
+			assertEquals("Expected to have no properties, but had propertyIds [test].", e.getMessage());
 		}
 	}
 	
@@ -192,4 +212,674 @@ public class ContainerAssertTest {
 		assertThat(actual).hasPropertyIds("test", "titi");
 	}
 
+	@Test
+	public void hasPropertyIds_should_report_every_missing_propertyId() {
+		Container actual = new IndexedContainer();
+		actual.addContainerProperty("test", String.class, "");
+		try {
+			assertThat(actual).hasPropertyIds("titi", "test", "toto");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to contain the propertyId ['titi', 'toto'], but did not.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasNotPropertyIds_should_report_every_present_propertyId() {
+		Container actual = new IndexedContainer();
+		actual.addContainerProperty("test", String.class, "");
+		actual.addContainerProperty("titi", String.class, "");
+		try {
+			assertThat(actual).hasNotPropertyIds("titi", "toto", "test");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected not to contain the propertyId ['titi', 'test'], but did.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasPropertyIdsInAnyOrder_should_pass_if_same_propertyIds() {
+		Container actual = new IndexedContainer();
+		actual.addContainerProperty("test", String.class, "");
+		actual.addContainerProperty("titi", String.class, "");
+		assertThat(actual).hasPropertyIdsInAnyOrder("titi", "test");
+	}
+
+	@Test
+	public void hasExactlyPropertyIds_should_throw_AssertionError_if_order_differs() {
+		Container actual = new IndexedContainer();
+		actual.addContainerProperty("test", String.class, "");
+		actual.addContainerProperty("titi", String.class, "");
+		try {
+			assertThat(actual).hasExactlyPropertyIds("titi", "test");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to have exactly the <2> given propertyIds in order, but found misplaced propertyIds [position 0: test instead of titi, position 1: titi instead of test].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasSchema_should_report_missing_extra_and_mistyped_propertyIds() {
+		Container actual = new IndexedContainer();
+		actual.addContainerProperty("name", String.class, "");
+		actual.addContainerProperty("age", Integer.class, 0);
+		actual.addContainerProperty("extra", String.class, "");
+		Map<Object, Class<?>> schema = new LinkedHashMap<Object, Class<?>>();
+		schema.put("name", String.class);
+		schema.put("age", Long.class);
+		schema.put("missing", String.class);
+		try {
+			assertThat(actual).hasSchema(schema);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to have the schema of <3> propertyIds, but found missing propertyIds [missing], unexpected propertyIds [extra], mistyped propertyIds [age: java.lang.Integer instead of java.lang.Long].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasItemIds_should_report_every_missing_itemId() {
+		Container actual = newContainer();
+		try {
+			assertThat(actual).hasItemIds(Arrays.asList("a", "x", "b", "y"));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to contain the <4> given itemIds, but found missing itemIds [x, y].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void same_should_describe_the_containers_by_identity() {
+		Container actual = newContainer();
+		Container other = newContainer();
+		try {
+			assertThat(actual).same(other);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected container ['" + identity(actual)
+					+ "'] to be the same as ['" + identity(other)
+					+ "'] but was not.", e.getMessage());
+		}
+	}
+
+	private static String identity(Object object) {
+		return object.getClass().getName() + "@"
+				+ Integer.toHexString(System.identityHashCode(object));
+	}
+
+	@Test
+	public void hasItemIds_should_not_look_up_the_indexes_of_an_in_memory_container() {
+		IndexedContainer actual = new IndexedContainer() {
+			@Override
+			public int indexOfId(Object itemId) {
+				throw new UnsupportedOperationException("indexOfId");
+			}
+		};
+		actual.addItem("a");
+		actual.addItem("b");
+		assertThat(actual).hasItemIds(Arrays.asList("b", "a"))
+				.hasOnlyItemIds(Arrays.asList("a", "b"));
+	}
+
+	@Test
+	public void hasItemIds_should_pass_if_actual_contains_itemIds() {
+		Container actual = newContainer();
+		actual.addItem("c");
+		assertThat(actual).hasItemIds(Arrays.asList("b", "c", "a"));
+	}
+
+	@Test
+	public void hasOnlyItemIds_should_report_a_bounded_message() {
+		IndexedContainer actual = newNumbersContainer(100);
+		try {
+			assertThat(actual).hasOnlyItemIds(newNumbersContainer(150).getItemIds());
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to contain only the <150> given itemIds, but found missing itemIds [100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110, 111, 112, 113, 114, 115, 116, 117, 118, 119, ... <30> more], unexpected itemIds [].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasOnlyItemIds_should_throw_AssertionError_if_other_itemIds() {
+		Container actual = newContainer();
+		try {
+			assertThat(actual).hasOnlyItemIds(Arrays.asList("a", "z"));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to contain only the <2> given itemIds, but found missing itemIds [z], unexpected itemIds [b].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void doesNotHaveAnyItemIds_should_report_every_present_itemId() {
+		Container actual = newContainer();
+		try {
+			assertThat(actual).doesNotHaveAnyItemIds(Arrays.asList("b", "z", "a"));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to not contain any of the <3> given itemIds, but found present itemIds [b, a].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void allItemsSatisfy_should_report_the_first_item_not_satisfying_the_condition() {
+		Container actual = newNumbersContainer(ItemConditionSearch.PARALLEL_THRESHOLD * 2);
+		try {
+			assertThat(actual).inParallel().allItemsSatisfy(numberBelow(15000));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected all items to satisfy <number below 15000>, but item [15000] did not.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void allItemsSatisfy_should_pass_in_parallel_if_every_item_satisfies_the_condition() {
+		Container actual = newNumbersContainer(ItemConditionSearch.PARALLEL_THRESHOLD * 2);
+		assertThat(actual).inParallel().allItemsSatisfy(numberBelow(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void allItemsSatisfy_should_evaluate_in_the_calling_thread_by_default() {
+		Container actual = newNumbersContainer(ItemConditionSearch.PARALLEL_THRESHOLD * 2);
+		final Thread caller = Thread.currentThread();
+		assertThat(actual).allItemsSatisfy(new Condition<Item>("evaluated by the caller") {
+			@Override
+			public boolean matches(Item item) {
+				return Thread.currentThread() == caller;
+			}
+		});
+	}
+
+	@Test
+	public void noItemSatisfies_should_report_the_first_item_satisfying_the_condition() {
+		Container actual = newNumbersContainer(10);
+		try {
+			assertThat(actual).noItemSatisfies(numberBelow(3));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected no item to satisfy <number below 3>, but item [0] did.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void anyItemSatisfies_should_throw_AssertionError_if_no_item_satisfies_the_condition() {
+		Container actual = newNumbersContainer(ItemConditionSearch.PARALLEL_THRESHOLD * 2);
+		try {
+			assertThat(actual).anyItemSatisfies(numberBelow(0));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected at least one item to satisfy <number below 0>, but none did.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void isSortedBy_should_pass_if_sorted_by_the_container() {
+		IndexedContainer actual = newNumbersContainer(5);
+		actual.addContainerProperty("parity", Integer.class, 0);
+		for (Object itemId : actual.getItemIds()) {
+			actual.getContainerProperty(itemId, "parity").setValue((Integer) itemId % 2);
+		}
+		actual.sort(new Object[] { "parity", "number" }, new boolean[] { true, false });
+		assertThat(actual).isSortedBy(new Object[] { "parity", "number" }, new boolean[] { true, false });
+	}
+
+	@Test
+	public void isSortedBy_should_report_the_first_item_out_of_order() {
+		Container actual = newNumbersContainer(5);
+		actual.getContainerProperty(3, "number").setValue(1);
+		try {
+			assertThat(actual).isSortedBy("number", true);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected items to be sorted by ['number'], but item [3] [1] came after item [2] [2].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void inSession_should_memoize_size_until_items_change() {
+		final int[] sizeCalls = new int[1];
+		Container actual = new IndexedContainer() {
+			@Override
+			public int size() {
+				sizeCalls[0]++;
+				return super.size();
+			}
+		};
+		actual.addItem("a");
+		sizeCalls[0] = 0;
+		ContainerAssert assertion = assertThat(actual).inSession();
+		assertion.isNotEmpty().hasSize(1).hasOnlyItemIds(Arrays.asList("a"));
+		assertEquals(1, sizeCalls[0]);
+		actual.addItem("b");
+		sizeCalls[0] = 0;
+		assertion.hasSize(2).isNotEmpty();
+		assertEquals(1, sizeCalls[0]);
+		assertion.endSession().hasSize(2);
+		assertEquals(2, sizeCalls[0]);
+	}
+
+	@Test
+	public void inSession_should_forget_propertyIds_when_properties_change() {
+		Container actual = new IndexedContainer();
+		actual.addContainerProperty("test", String.class, "");
+		ContainerAssert assertion = assertThat(actual).inSession().hasPropertyId("test");
+		actual.addContainerProperty("titi", String.class, "");
+		assertion.hasPropertyIds("test", "titi");
+	}
+
+	@Test
+	public void equals_should_throw_AssertionError_if_cells_differ() {
+		Container expected = newContainer();
+		expected.getContainerProperty("a", "name").setValue("alpha");
+		expected.getContainerProperty("b", "name").setValue("beta");
+		expected.addItem("c");
+		Container actual = newContainer();
+		actual.getContainerProperty("a", "name").setValue("alpha");
+		actual.getContainerProperty("b", "name").setValue("BETA");
+		actual.addItem("d");
+		try {
+			assertThat(actual).equals(expected);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected containers to be equal, but found missing propertyIds [], unexpected propertyIds [], missing itemIds [c], unexpected itemIds [d], changed itemIds [b [name]].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void equals_should_use_the_comparator_given_for_a_property() {
+		Container expected = newContainer();
+		expected.getContainerProperty("a", "name").setValue("alpha");
+		Container actual = newContainer();
+		actual.getContainerProperty("a", "name").setValue("ALPHA");
+		assertThat(actual).usingComparatorForProperty("name",
+				String.CASE_INSENSITIVE_ORDER).equals(expected);
+	}
+
+	@Test
+	public void equals_should_pass_if_same_cells() {
+		Container expected = newContainer();
+		expected.getContainerProperty("a", "name").setValue("alpha");
+		Container actual = newContainer();
+		actual.getContainerProperty("a", "name").setValue("alpha");
+		assertThat(actual).equals(expected);
+	}
+
+	@Test
+	public void matchesSnapshot_should_write_the_snapshot_then_compare_to_it()
+			throws Exception {
+		File snapshot = new File(folder.getRoot(), "snapshots/numbers.snapshot");
+		assertThat(newNumbersContainer(100)).matchesSnapshot(snapshot);
+		assertTrue(snapshot.exists());
+		assertThat(newNumbersContainer(100)).matchesSnapshot(snapshot);
+	}
+
+	@Test
+	public void equals_should_compare_the_cells_of_values_with_the_same_hash() {
+		// "Aa" and "BB" have the same String.hashCode()
+		Container expected = newContainer();
+		expected.getContainerProperty("a", "name").setValue("Aa");
+		Container actual = newContainer();
+		actual.getContainerProperty("a", "name").setValue("BB");
+		try {
+			assertThat(actual).equals(expected);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected containers to be equal, but found missing propertyIds [], unexpected propertyIds [], missing itemIds [], unexpected itemIds [], changed itemIds [a [name]].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void equals_should_report_the_propertyIds_of_the_changed_cells() {
+		Container expected = newContainer();
+		expected.addContainerProperty("age", Integer.class, 0);
+		Container actual = newContainer();
+		actual.addContainerProperty("age", Integer.class, 0);
+		actual.getContainerProperty("b", "name").setValue("beta");
+		actual.getContainerProperty("b", "age").setValue(2);
+		ContainerDiff diff = ContainerDiff.compute(expected, actual);
+		assertEquals(Arrays.asList("b"), diff.getChangedItemIds());
+		assertEquals(Arrays.asList("name", "age"),
+				diff.getChangedPropertyIds("b"));
+		assertTrue(diff.getChangedPropertyIds("a").isEmpty());
+	}
+
+	@Test
+	public void equals_should_report_the_unexpected_propertyIds() {
+		Container actual = newContainer();
+		actual.addContainerProperty("extra", String.class, "");
+		try {
+			assertThat(actual).equals(newContainer());
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected containers to be equal, but found missing propertyIds [], unexpected propertyIds [extra], missing itemIds [], unexpected itemIds [], changed itemIds [].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void equals_should_only_list_the_first_differences() {
+		IndexedContainer expected = newNumbersContainer(1000);
+		IndexedContainer actual = newNumbersContainer(1002);
+		for (int i = 0; i < 1000; i++) {
+			actual.getContainerProperty(i, "number").setValue(-i);
+		}
+		try {
+			assertThat(actual).equals(expected);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected containers to be equal, but found missing propertyIds [], unexpected propertyIds [], missing itemIds [], unexpected itemIds [1000, 1001], changed itemIds [1 [number], 2 [number], 3 [number], 4 [number], 5 [number], 6 [number], 7 [number], 8 [number], 9 [number], 10 [number], 11 [number], 12 [number], 13 [number], 14 [number], 15 [number], 16 [number], 17 [number], 18 [number], ... <981> more].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void equals_should_write_every_difference_to_the_full_report()
+			throws Exception {
+		IndexedContainer expected = newNumbersContainer(100);
+		IndexedContainer actual = newNumbersContainer(100);
+		for (int i = 0; i < 100; i++) {
+			actual.getContainerProperty(i, "number").setValue(-i);
+		}
+		try {
+			assertThat(actual).withFullFailureReports().equals(expected);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			String message = e.getMessage();
+			assertTrue(message, message.contains("... <79> more] (full report in "));
+			File report = new File(message.substring(
+					message.indexOf("full report in ") + 15,
+					message.length() - 2));
+			List<String> lines = Files.readLines(report, Charsets.UTF_8);
+			assertEquals(99, lines.size());
+			assertEquals("changed itemIds\t99 [number]", lines.get(98));
+			report.delete();
+		}
+	}
+
+	@Test
+	public void extractingBeanProperty_should_read_nested_properties() {
+		BeanItemContainer<Customer> customers = new BeanItemContainer<Customer>(
+				Customer.class);
+		customers.addBean(new Customer("alice", new Address("Paris")));
+		customers.addBean(new Customer("bob", null));
+		customers.addBean(new Customer("carol", new Address("Lyon")));
+		assertThat(customers).extractingBeanProperty("address.city")
+				.containsExactly("Paris", null, "Lyon");
+		assertThat(customers).extractingBeanProperty("name").containsOnly(
+				"carol", "bob", "alice");
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void extractingBeanProperty_should_read_the_properties_of_generic_getters() {
+		BeanItemContainer<Holder> holders = new BeanItemContainer<Holder>(
+				Holder.class);
+		holders.addBean(new Holder<Address>(new Address("Paris")));
+		holders.addBean(new Holder<Address>(null));
+		assertThat(holders).extractingBeanProperty("value.city")
+				.containsExactly("Paris", null);
+		holders.addBean(new Holder<Customer>(new Customer("bob", null)));
+		try {
+			assertThat(holders).extractingBeanProperty("value.city");
+			fail("should throw an IllegalArgumentException.");
+		} catch (IllegalArgumentException e) {
+			assertEquals(
+					"The property <value.city> of " + Customer.class.getName()
+							+ " has no readable <city> in "
+							+ Customer.class.getName(), e.getMessage());
+		}
+	}
+
+	@Test
+	public void extractingBeanProperty_should_throw_IllegalArgumentException_if_the_property_is_unknown() {
+		BeanItemContainer<Customer> customers = new BeanItemContainer<Customer>(
+				Customer.class);
+		customers.addBean(new Customer("alice", new Address("Paris")));
+		try {
+			assertThat(customers).extractingBeanProperty("address.zip");
+			fail("should throw an IllegalArgumentException.");
+		} catch (IllegalArgumentException e) {
+			assertEquals(
+					"The property <address.zip> of "
+							+ Customer.class.getName()
+							+ " has no readable <zip> in "
+							+ Address.class.getName(), e.getMessage());
+		}
+	}
+
+	@Test
+	public void whenFiltered_should_check_the_kept_items_and_remove_the_filter() {
+		IndexedContainer container = newNumbersContainer(1000);
+		assertThat(container).whenFiltered(new Compare.Less("number", 100))
+				.containsExactlyItemsMatching(numberBelow(100));
+		assertEquals(1000, container.size());
+	}
+
+	@Test
+	public void whenFiltered_should_report_the_wrongly_filtered_items() {
+		IndexedContainer container = newNumbersContainer(1000);
+		try {
+			assertThat(container).whenFiltered(
+					new Compare.LessOrEqual("number", 100))
+					.containsExactlyItemsMatching(numberBelow(99));
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected the filter <'LessOrEqual'> to keep exactly the items satisfying <number below 99>, but found wrongly filtered out itemIds [], wrongly kept itemIds [99, 100].",
+					e.getMessage());
+		}
+		assertEquals(1000, container.size());
+	}
+
+	@Test
+	public void sortsStablyBy_should_pass_for_the_default_sort() {
+		IndexedContainer container = newNumbersContainer(10000);
+		for (int i = 0; i < 10000; i++) {
+			container.getContainerProperty(i, "number").setValue(
+					i % 3 == 0 ? null : i % 100);
+		}
+		assertThat(container).sortsStablyBy(new Object[] { "number" },
+				new boolean[] { false }).isSortedBy("number", false);
+	}
+
+	@Test
+	public void sortsCorrectlyBy_should_throw_AssertionError_if_the_order_is_wrong() {
+		IndexedContainer container = new IndexedContainer() {
+			@Override
+			public void sort(Object[] propertyId, boolean[] ascending) {
+				// does not sort
+			}
+		};
+		container.addContainerProperty("number", Integer.class, 0);
+		for (int i = 0; i < 3; i++) {
+			container.addItem(i).getItemProperty("number").setValue(i);
+		}
+		try {
+			assertThat(container).sortsCorrectlyBy(new Object[] { "number" },
+					new boolean[] { false });
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected the sort by ['number'] to put item [2] [2] at position <0>, but found item [0] [0].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void sortsStablyBy_should_throw_AssertionError_if_equal_items_are_swapped() {
+		IndexedContainer container = newNumbersContainer(4);
+		container.getContainerProperty(1, "number").setValue(2);
+		container.setItemSorter(new DefaultItemSorter() {
+			@Override
+			public int compare(Object itemId, Object otherItemId) {
+				int result = super.compare(itemId, otherItemId);
+				return result != 0 ? result : (Integer) otherItemId
+						- (Integer) itemId;
+			}
+		});
+		try {
+			assertThat(container).sortsStablyBy(new Object[] { "number" },
+					new boolean[] { true });
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals(
+					"Expected the sort by ['number'] to be stable, but item [2] came before item [1] with the same keys [2].",
+					e.getMessage());
+		}
+		assertThat(container).sortsCorrectlyBy(new Object[] { "number" },
+				new boolean[] { true });
+	}
+
+	@Test
+	public void matchesSnapshot_should_report_the_differences() throws Exception {
+		File snapshot = folder.newFile("numbers.snapshot");
+		snapshot.delete();
+		assertThat(newNumbersContainer(3)).matchesSnapshot(snapshot);
+		IndexedContainer actual = newNumbersContainer(4);
+		actual.getContainerProperty(1, "number").setValue(10);
+		try {
+			assertThat(actual).matchesSnapshot(snapshot);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected container to match the snapshot <'"
+					+ snapshot.getPath()
+					+ "'>, but found differences [item [1]: expected <1> for the property [number] but was <10>, row 3: unexpected itemId <3>].",
+					e.getMessage());
+		}
+	}
+
+	@Test
+	public void snapshot_should_be_read_across_mapped_windows() throws Exception {
+		File snapshot = folder.newFile("mixed.snapshot");
+		IndexedContainer container = new IndexedContainer();
+		container.addContainerProperty("name", String.class, null);
+		container.addContainerProperty("count", Long.class, null);
+		container.addContainerProperty("valid", Boolean.class, null);
+		for (int i = 0; i < 50; i++) {
+			Item item = container.addItem("item-" + i);
+			item.getItemProperty("name").setValue(i % 3 == 0 ? null : "name " + i);
+			item.getItemProperty("count").setValue((long) i << 40);
+			item.getItemProperty("valid").setValue(i % 2 == 0);
+		}
+		SnapshotFile.write(container, container.getContainerPropertyIds(),
+				ItemIdCursor.over(container, 10), snapshot);
+		FailureReport differences = SnapshotFile.compare(container,
+				container.getContainerPropertyIds(),
+				ItemIdCursor.over(container, 10), snapshot, 7);
+		assertTrue(differences.toString(), differences.isEmpty());
+	}
+
+	@Test
+	public void snapshot_should_be_reported_if_truncated() throws Exception {
+		File snapshot = folder.newFile("truncated.snapshot");
+		IndexedContainer container = newNumbersContainer(3);
+		SnapshotFile.write(container, container.getContainerPropertyIds(),
+				ItemIdCursor.over(container, 10), snapshot);
+		byte[] bytes = Files.toByteArray(snapshot);
+		Files.write(Arrays.copyOf(bytes, bytes.length - 2), snapshot);
+		try {
+			SnapshotFile.compare(container, container.getContainerPropertyIds(),
+					ItemIdCursor.over(container, 10), snapshot);
+			fail("should throw an IOException.");
+		} catch (IOException e) {
+			assertEquals(snapshot + " is truncated", e.getMessage());
+		}
+	}
+
+	@Test
+	public void snapshot_should_be_reported_if_corrupt() throws Exception {
+		File snapshot = folder.newFile("corrupt.snapshot");
+		IndexedContainer container = newNumbersContainer(3);
+		SnapshotFile.write(container, container.getContainerPropertyIds(),
+				ItemIdCursor.over(container, 10), snapshot);
+		byte[] bytes = Files.toByteArray(snapshot);
+		// the number of items after the end marker
+		bytes[bytes.length - 1] = 2;
+		Files.write(bytes, snapshot);
+		try {
+			SnapshotFile.compare(container, container.getContainerPropertyIds(),
+					ItemIdCursor.over(container, 10), snapshot);
+			fail("should throw an IOException.");
+		} catch (IOException e) {
+			assertEquals(snapshot
+					+ " is corrupt: it ends after 3 items but records 2",
+					e.getMessage());
+		}
+	}
+
+	private static Container newContainer() {
+		Container container = new IndexedContainer();
+		container.addContainerProperty("name", String.class, "");
+		container.addItem("a");
+		container.addItem("b");
+		return container;
+	}
+
+	private static IndexedContainer newNumbersContainer(int size) {
+		IndexedContainer container = new IndexedContainer();
+		container.addContainerProperty("number", Integer.class, 0);
+		for (int i = 0; i < size; i++) {
+			container.addItem(i).getItemProperty("number").setValue(i);
+		}
+		return container;
+	}
+
+	private static Condition<Item> numberBelow(final int limit) {
+		return new Condition<Item>("number below " + limit) {
+			@Override
+			public boolean matches(Item item) {
+				return (Integer) item.getItemProperty("number").getValue() < limit;
+			}
+		};
+	}
+
+	public static class Customer {
+
+		private final String name;
+		private final Address address;
+
+		Customer(String name, Address address) {
+			this.name = name;
+			this.address = address;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Address getAddress() {
+			return address;
+		}
+	}
+
+	public static class Holder<T> {
+
+		private final T value;
+
+		Holder(T value) {
+			this.value = value;
+		}
+
+		public T getValue() {
+			return value;
+		}
+	}
+
+	public static class Address {
+
+		private final String city;
+
+		Address(String city) {
+			this.city = city;
+		}
+
+		public String getCity() {
+			return city;
+		}
+	}
 }
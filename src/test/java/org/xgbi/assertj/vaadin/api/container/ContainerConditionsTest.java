@@ -0,0 +1,42 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.vaadin.data.util.IndexedContainer;
+
+public class ContainerConditionsTest {
+
+	@Test
+	public void conditions_should_match_without_throwing() {
+		IndexedContainer container = new IndexedContainer();
+		container.addContainerProperty("name", String.class, null);
+		container.addItem("one");
+		assertTrue(ContainerConditions.notEmpty().matches(container));
+		assertTrue(ContainerConditions.itemId("one").matches(container));
+		assertTrue(ContainerConditions.propertyId("name").matches(container));
+		assertTrue(ContainerConditions.size(1).matches(container));
+		assertFalse(ContainerConditions.noItemId("one").matches(container));
+		assertFalse(ContainerConditions.empty().matches(null));
+	}
+
+	@Test
+	public void failureMessage_should_be_the_one_of_the_assertion() {
+		IndexedContainer container = new IndexedContainer();
+		assertEquals("Expected to contain the itemId ['two'], but did not.",
+				ContainerConditions.itemId("two").failureMessage(container));
+		assertEquals("Expected to have a size of [3], but was [0]",
+				ContainerConditions.size(3).failureMessage(container));
+		assertEquals("Expecting actual not to be null",
+				ContainerConditions.empty().failureMessage(null));
+	}
+
+	@Test
+	public void describing_a_condition_should_not_change_the_others() {
+		ContainerConditions.empty().as("cleared");
+		assertEquals("empty", ContainerConditions.empty().toString());
+	}
+}
@@ -0,0 +1,105 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+import com.vaadin.data.util.IndexedContainer;
+
+public class ContainerSnapshotTest {
+
+	@Test
+	public void snapshot_should_be_equal_to_its_source() {
+		Container source = newContainer();
+		ContainerSnapshot snapshot = ContainerSnapshot.of(source);
+		assertThat(snapshot).hasSize(3)
+				.hasExactlyPropertyIds("id", "amount", "price", "active", "name", "date")
+				.hasTypeFor("amount", Long.class).equals(source);
+	}
+
+	@Test
+	public void snapshot_should_keep_null_cells() {
+		Container source = newContainer();
+		source.getContainerProperty(1, "name").setValue(null);
+		source.getContainerProperty(1, "amount").setValue(null);
+		ContainerSnapshot snapshot = ContainerSnapshot.of(source);
+		assertNull(snapshot.getContainerProperty(1, "name").getValue());
+		assertNull(snapshot.getContainerProperty(1, "amount").getValue());
+		assertEquals("same", snapshot.getContainerProperty(2, "name").getValue());
+	}
+
+	@Test
+	public void snapshot_should_not_follow_its_source() {
+		Container source = newContainer();
+		ContainerSnapshot snapshot = ContainerSnapshot.of(source);
+		source.removeItem(0);
+		assertThat(snapshot).hasSize(3).hasItemId(0);
+	}
+
+	@Test
+	public void snapshot_should_be_read_only() {
+		ContainerSnapshot snapshot = ContainerSnapshot.of(newContainer());
+		try {
+			snapshot.addItem();
+			fail("should throw an UnsupportedOperationException.");
+		} catch (UnsupportedOperationException e) {
+			assertEquals("A ContainerSnapshot can not be modified", e.getMessage());
+		}
+	}
+
+	@Test
+	public void snapshot_should_look_up_the_itemIds_by_type() {
+		ContainerSnapshot snapshot = ContainerSnapshot.of(newContainer());
+		assertEquals(2, snapshot.indexOfId(2));
+		assertEquals(-1, snapshot.indexOfId(2L));
+		assertEquals(-1, snapshot.indexOfId(3));
+		assertFalse(snapshot.containsId("2"));
+	}
+
+	@Test
+	public void snapshot_should_be_serializable() throws IOException,
+			ClassNotFoundException {
+		Container source = newContainer();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+		output.writeObject(ContainerSnapshot.of(source));
+		output.close();
+		ContainerSnapshot copy = (ContainerSnapshot) new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		assertThat(copy).equals(source);
+		assertEquals(1, copy.indexOfId(1));
+	}
+
+	private static Container newContainer() {
+		Container container = new IndexedContainer();
+		container.addContainerProperty("id", Integer.class, 0);
+		container.addContainerProperty("amount", Long.class, 0L);
+		container.addContainerProperty("price", Double.class, 0d);
+		container.addContainerProperty("active", Boolean.class, false);
+		container.addContainerProperty("name", String.class, "");
+		container.addContainerProperty("date", Date.class, null);
+		for (int i = 0; i < 3; i++) {
+			Item item = container.addItem(i);
+			item.getItemProperty("id").setValue(i);
+			item.getItemProperty("amount").setValue(i * 10L);
+			item.getItemProperty("price").setValue(i / 2d);
+			item.getItemProperty("active").setValue(i % 2 == 0);
+			item.getItemProperty("name").setValue("same");
+			item.getItemProperty("date").setValue(new Date(i));
+		}
+		return container;
+	}
+}
@@ -0,0 +1,94 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.xgbi.assertj.vaadin.api.Assertions.assertThat;
+
+import org.assertj.core.api.Condition;
+import org.junit.Test;
+
+import com.vaadin.data.Item;
+import com.vaadin.data.util.HierarchicalContainer;
+
+public class HierarchicalContainerAssertTest {
+
+	@Test
+	public void hasRoots_should_pass_if_roots_are_the_given_ones() {
+		assertThat(newTree()).hasRoots("b", "a");
+	}
+
+	@Test
+	public void hasChildren_should_throw_AssertionError_if_children_differ() {
+		try {
+			assertThat(newTree()).hasChildren("a", "a1", "a3");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected the 'children of [a]' to be the <2> given itemIds, but found missing itemIds [a3], unexpected itemIds [a2].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void isLeaf_should_throw_AssertionError_if_item_has_children() {
+		try {
+			assertThat(newTree()).isLeaf("a2").isLeaf("a");
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected item ['a'] to be a leaf, but it had children [a1, a2].", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasDepth_should_report_the_nodes_by_depth() {
+		try {
+			assertThat(newTree()).hasNodeCount(5).hasDepth(2);
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected to have a depth of [2], but was [3] (nodes by depth [2, 2, 1])", e.getMessage());
+		}
+	}
+
+	@Test
+	public void hasDepth_should_not_overflow_on_deep_trees() {
+		HierarchicalContainer tree = new HierarchicalContainer();
+		Object parentId = tree.addItem();
+		for (int i = 1; i < 10000; i++) {
+			Object itemId = tree.addItem();
+			tree.setParent(itemId, parentId);
+			parentId = itemId;
+		}
+		assertThat(tree).hasDepth(10000).hasNodeCount(10000)
+				.everyNodeSatisfies(new Condition<Item>("not null") {
+					@Override
+					public boolean matches(Item item) {
+						return item != null;
+					}
+				});
+	}
+
+	@Test
+	public void everyNodeSatisfies_should_report_the_first_failing_node() {
+		try {
+			assertThat(newTree()).everyNodeSatisfies(new Condition<Item>("named like a") {
+				@Override
+				public boolean matches(Item item) {
+					return ((String) item.getItemProperty("name").getValue()).startsWith("a");
+				}
+			});
+			fail("should throw an AssertionError.");
+		} catch (AssertionError e) {
+			assertEquals("Expected every node to satisfy <named like a>, but node ['b'] did not.", e.getMessage());
+		}
+	}
+
+	private static HierarchicalContainer newTree() {
+		HierarchicalContainer tree = new HierarchicalContainer();
+		tree.addContainerProperty("name", String.class, "");
+		for (String itemId : new String[] { "a", "a1", "a2", "a11", "b" }) {
+			tree.addItem(itemId).getItemProperty("name").setValue(itemId);
+		}
+		tree.setParent("a1", "a");
+		tree.setParent("a2", "a");
+		tree.setParent("a11", "a1");
+		return tree;
+	}
+}
@@ -0,0 +1,54 @@
+package org.xgbi.assertj.vaadin.api.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.util.ContainerOrderedWrapper;
+import com.vaadin.data.util.HierarchicalContainer;
+import com.vaadin.data.util.IndexedContainer;
+
+public class ItemIdCursorTest {
+
+	@Test
+	public void should_read_an_indexed_container_by_pages() {
+		Container container = newContainer(new IndexedContainer(), 7);
+		assertEquals(Arrays.<Object> asList(0, 1, 2, 3, 4, 5, 6),
+				drain(ItemIdCursor.over(container, 3)));
+	}
+
+	@Test
+	public void should_walk_an_ordered_container() {
+		Container container = new ContainerOrderedWrapper(newContainer(
+				new HierarchicalContainer(), 3));
+		assertEquals(Arrays.<Object> asList(0, 1, 2),
+				drain(ItemIdCursor.over(container, 3)));
+	}
+
+	@Test
+	public void should_have_no_itemId_if_container_is_empty() {
+		assertFalse(ItemIdCursor.over(new IndexedContainer(), 10).hasNext());
+	}
+
+	private static Container newContainer(Container container, int size) {
+		for (int i = 0; i < size; i++) {
+			container.addItem(i);
+		}
+		return container;
+	}
+
+	private static List<Object> drain(Iterator<Object> cursor) {
+		List<Object> itemIds = new ArrayList<Object>();
+		while (cursor.hasNext()) {
+			itemIds.add(cursor.next());
+		}
+		return itemIds;
+	}
+}